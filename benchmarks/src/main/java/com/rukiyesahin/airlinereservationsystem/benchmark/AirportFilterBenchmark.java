@@ -0,0 +1,75 @@
+package com.rukiyesahin.airlinereservationsystem.benchmark;
+
+import com.rukiyesahin.airlinereservationsystem.entity.Airport;
+import com.rukiyesahin.airlinereservationsystem.service.AirportService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// AirportService classification filters; one airport in five is domestic (US) and one in
+// a hundred is a major hub, so the filters return very different result sizes
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AirportFilterBenchmark {
+
+    @Param({"1000", "20000"})
+    private int airportCount;
+
+    private ConfigurableApplicationContext context;
+    private AirportService airportService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        BenchmarkApplication.seedAirports(context, airportCount, 42);
+        airportService = context.getBean(AirportService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Airport> internationalAirports() {
+        return airportService.getInternationalAirports();
+    }
+
+    @Benchmark
+    public List<Airport> domesticAirports() {
+        return airportService.getDomesticAirports();
+    }
+
+    @Benchmark
+    public List<Airport> majorAirports() {
+        return airportService.getMajorAirports();
+    }
+
+    @Benchmark
+    public List<Airport> regionalAirports() {
+        return airportService.getRegionalAirports();
+    }
+
+    @Benchmark
+    public List<Airport> airportsWithCoordinates() {
+        return airportService.getAirportsWithCoordinates();
+    }
+}
@@ -0,0 +1,124 @@
+package com.rukiyesahin.airlinereservationsystem.benchmark;
+
+import com.rukiyesahin.airlinereservationsystem.entity.Airport;
+import com.rukiyesahin.airlinereservationsystem.repository.AirportRepository;
+import com.rukiyesahin.airlinereservationsystem.service.AirportGeoIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Radius and nearest-airport lookups: k-d tree index against the latitude/longitude range query
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AirportGeoIndexBenchmark {
+
+    private static final int QUERY_POINTS = 1024;
+    private static final double KM_PER_DEGREE = 111.32;
+
+    @Param({"50000", "100000"})
+    private int airportCount;
+
+    @Param({"250"})
+    private double radiusKm;
+
+    private ConfigurableApplicationContext context;
+    private AirportRepository airportRepository;
+    private AirportGeoIndex airportGeoIndex;
+    private double[][] queryPoints;
+    private int nextQuery;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        BenchmarkApplication.seedAirports(context, airportCount, 42);
+        airportRepository = context.getBean(AirportRepository.class);
+        airportGeoIndex = context.getBean(AirportGeoIndex.class);
+        airportGeoIndex.reload();
+
+        Random random = new Random(7);
+        queryPoints = new double[QUERY_POINTS][];
+        for (int i = 0; i < QUERY_POINTS; i++) {
+            queryPoints[i] = new double[] {BenchmarkApplication.randomLatitude(random), BenchmarkApplication.randomLongitude(random)};
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Airport> boundingBoxRadius() {
+        double[] point = nextPoint();
+        return boundingBox(point[0], point[1], radiusKm);
+    }
+
+    @Benchmark
+    public List<AirportGeoIndex.NearbyAirport> geoIndexRadius() {
+        double[] point = nextPoint();
+        return airportGeoIndex.withinRadius(point[0], point[1], radiusKm, Integer.MAX_VALUE);
+    }
+
+    // Without an index the nearest airports need a growing bounding box until enough rows match
+    @Benchmark
+    public List<Airport> boundingBoxNearest10() {
+        double[] point = nextPoint();
+        double radius = radiusKm;
+        List<Airport> found = boundingBox(point[0], point[1], radius);
+        while (found.size() < 10 && radius < 20000) {
+            radius *= 2;
+            found = boundingBox(point[0], point[1], radius);
+        }
+        found.sort(Comparator.comparingDouble(airport ->
+                AirportGeoIndex.distanceKm(point[0], point[1], airport.getLatitude(), airport.getLongitude())));
+        return found.size() > 10 ? found.subList(0, 10) : found;
+    }
+
+    @Benchmark
+    public List<AirportGeoIndex.NearbyAirport> geoIndexNearest10() {
+        double[] point = nextPoint();
+        return airportGeoIndex.nearest(point[0], point[1], 10);
+    }
+
+    // Range query on the two columns, then the exact great-circle filter the index applies
+    private List<Airport> boundingBox(double latitude, double longitude, double radius) {
+        double latitudeDelta = radius / KM_PER_DEGREE;
+        double longitudeDelta = Math.min(180, radius / (KM_PER_DEGREE * Math.max(0.01, Math.cos(Math.toRadians(latitude)))));
+        List<Airport> candidates = airportRepository.findByLatitudeBetweenAndLongitudeBetween(
+                latitude - latitudeDelta, latitude + latitudeDelta, longitude - longitudeDelta, longitude + longitudeDelta);
+        List<Airport> found = new ArrayList<>(candidates.size());
+        for (Airport airport : candidates) {
+            if (AirportGeoIndex.distanceKm(latitude, longitude, airport.getLatitude(), airport.getLongitude()) <= radius) {
+                found.add(airport);
+            }
+        }
+        return found;
+    }
+
+    private double[] nextPoint() {
+        double[] point = queryPoints[nextQuery];
+        nextQuery = (nextQuery + 1) & (QUERY_POINTS - 1);
+        return point;
+    }
+}
@@ -0,0 +1,118 @@
+package com.rukiyesahin.airlinereservationsystem.benchmark;
+
+import com.rukiyesahin.airlinereservationsystem.AirlineReservationSystemApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Boots the application, with or without its web server, and seeds its in-memory database for benchmarks
+public final class BenchmarkApplication {
+
+    private static final String CODE_ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
+
+    private BenchmarkApplication() {
+    }
+
+    public static ConfigurableApplicationContext start(String... extraArgs) {
+        return start(WebApplicationType.NONE, extraArgs);
+    }
+
+    // Boots the application with its web server on a random port, see localPort
+    public static ConfigurableApplicationContext startServer(String... extraArgs) {
+        List<String> args = new ArrayList<>(List.of("--server.port=0"));
+        args.addAll(List.of(extraArgs));
+        return start(WebApplicationType.SERVLET, args.toArray(new String[0]));
+    }
+
+    public static int localPort(ConfigurableApplicationContext context) {
+        return ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    private static ConfigurableApplicationContext start(WebApplicationType webApplicationType, String... extraArgs) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.main.banner-mode=off",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework.web=WARN",
+                "--logging.level.com.rukiyesahin.airlinereservationsystem=WARN",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"));
+        args.addAll(List.of(extraArgs));
+        return new SpringApplicationBuilder(AirlineReservationSystemApplication.class)
+                .web(webApplicationType)
+                .run(args.toArray(new String[0]));
+    }
+
+    // Insert airports with unique three-character codes at random coordinates. Seeded rows take
+    // their ids from the entity sequences, so later inserts through Hibernate do not collide. Every
+    // fifth airport is in the US and every hundredth is a major hub, whatever ids the sequence hands out.
+    public static void seedAirports(ConfigurableApplicationContext context, int count, long seed) {
+        if (count > CODE_ALPHABET.length() * CODE_ALPHABET.length() * CODE_ALPHABET.length()) {
+            throw new IllegalArgumentException("Too many airports for three-character codes: " + count);
+        }
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        Random random = new Random(seed);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String country = i % 5 == 0 ? "US" : "C" + (i % 50);
+            rows.add(new Object[] {code(i), "Airport " + i, "City " + (i % 5000), country,
+                    randomLatitude(random), randomLongitude(random), !"US".equals(country), i % 100 == 0, now, now});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO airports (id, code, name, city, country, latitude, longitude, international, "
+                + "departure_flight_count, arrival_flight_count, major_hub, created_at, updated_at) "
+                + "VALUES (NEXT VALUE FOR airports_seq, ?, ?, ?, ?, ?, ?, ?, 0, 0, ?, ?, ?)", rows);
+    }
+
+    // Insert scheduled flights between the seeded airports, departing over the next 30 days
+    public static void seedFlights(ConfigurableApplicationContext context, int count, long seed) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        List<Long> airportIds = jdbcTemplate.queryForList("SELECT id FROM airports ORDER BY id", Long.class);
+        if (airportIds.size() < 2) {
+            throw new IllegalStateException("Seed at least two airports before seeding flights");
+        }
+        Random random = new Random(seed);
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withHour(0).withMinute(0).withSecond(0).withNano(0);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int departure = random.nextInt(airportIds.size());
+            int arrival = (departure + 1 + random.nextInt(airportIds.size() - 1)) % airportIds.size();
+            LocalDateTime departureTime = start.plusMinutes(random.nextInt(30 * 24 * 60));
+            BigDecimal basePrice = BigDecimal.valueOf(50 + random.nextInt(950));
+            rows.add(new Object[] {"BM" + i, airportIds.get(departure), airportIds.get(arrival),
+                    Timestamp.valueOf(departureTime), Timestamp.valueOf(departureTime.plusMinutes(60 + random.nextInt(600))),
+                    180, 1 + random.nextInt(180), basePrice, basePrice.multiply(BigDecimal.valueOf(2.5)),
+                    basePrice.multiply(BigDecimal.valueOf(4)), now, now});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO flights (id, flight_number, departure_airport_id, arrival_airport_id, "
+                + "departure_time, arrival_time, status, total_seats, available_seats, base_price, "
+                + "business_class_price, first_class_price, created_at, updated_at) "
+                + "VALUES (NEXT VALUE FOR flights_seq, ?, ?, ?, ?, ?, 'SCHEDULED', ?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    public static double randomLatitude(Random random) {
+        return -55 + random.nextDouble() * 125;
+    }
+
+    public static double randomLongitude(Random random) {
+        return -180 + random.nextDouble() * 360;
+    }
+
+    // Code of the index-th seeded airport
+    public static String code(int index) {
+        int base = CODE_ALPHABET.length();
+        return "" + CODE_ALPHABET.charAt(index / (base * base))
+                + CODE_ALPHABET.charAt((index / base) % base)
+                + CODE_ALPHABET.charAt(index % base);
+    }
+}
@@ -0,0 +1,77 @@
+package com.rukiyesahin.airlinereservationsystem.benchmark;
+
+import com.rukiyesahin.airlinereservationsystem.dto.FlightSummary;
+import com.rukiyesahin.airlinereservationsystem.service.FlightService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// FlightService.searchFlights (route + day) against the seeded in-memory database
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FlightSearchBenchmark {
+
+    private static final int QUERIES = 1024;
+
+    @Param({"10000", "100000"})
+    private int flightCount;
+
+    @Param({"50"})
+    private int airportCount;
+
+    private ConfigurableApplicationContext context;
+    private FlightService flightService;
+    private String[][] routes;
+    private LocalDateTime[] dates;
+    private int nextQuery;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        BenchmarkApplication.seedAirports(context, airportCount, 42);
+        BenchmarkApplication.seedFlights(context, flightCount, 42);
+        flightService = context.getBean(FlightService.class);
+
+        Random random = new Random(7);
+        LocalDateTime firstDay = LocalDateTime.now().plusDays(1).withHour(0).withMinute(0).withSecond(0).withNano(0);
+        routes = new String[QUERIES][];
+        dates = new LocalDateTime[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            int departure = random.nextInt(airportCount);
+            int arrival = (departure + 1 + random.nextInt(airportCount - 1)) % airportCount;
+            routes[i] = new String[] {BenchmarkApplication.code(departure), BenchmarkApplication.code(arrival)};
+            dates[i] = firstDay.plusDays(random.nextInt(30));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<FlightSummary> searchFlights() {
+        int query = nextQuery++ & (QUERIES - 1);
+        return flightService.searchFlights(routes[query][0], routes[query][1], dates[query]);
+    }
+}
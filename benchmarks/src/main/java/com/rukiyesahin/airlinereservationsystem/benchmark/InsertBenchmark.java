@@ -0,0 +1,125 @@
+package com.rukiyesahin.airlinereservationsystem.benchmark;
+
+import com.rukiyesahin.airlinereservationsystem.entity.Airport;
+import com.rukiyesahin.airlinereservationsystem.entity.Booking;
+import com.rukiyesahin.airlinereservationsystem.entity.Flight;
+import com.rukiyesahin.airlinereservationsystem.entity.Passenger;
+import com.rukiyesahin.airlinereservationsystem.entity.Payment;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Rows inserted per second when persisting a schedule of flights, and bookings with their
+// passengers and payment, one transaction per invocation. batchSize sets hibernate.jdbc.batch_size.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InsertBenchmark {
+
+    private static final int FLIGHTS_PER_TRANSACTION = 1000;
+    private static final int BOOKINGS_PER_TRANSACTION = 200;
+    private static final int PASSENGERS_PER_BOOKING = 4;
+    // Booking, its passengers and one payment
+    private static final int ROWS_PER_BOOKING = 1 + PASSENGERS_PER_BOOKING + 1;
+
+    @Param({"1", "50"})
+    private int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private EntityManagerFactory entityManagerFactory;
+    private TransactionTemplate transactionTemplate;
+    private JdbcTemplate jdbcTemplate;
+    private List<Long> airportIds;
+    private Long flightId;
+    private long sequence;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("--spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize);
+        BenchmarkApplication.seedAirports(context, 50, 42);
+        BenchmarkApplication.seedFlights(context, 1, 42);
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        airportIds = jdbcTemplate.queryForList("SELECT id FROM airports ORDER BY id", Long.class);
+        flightId = jdbcTemplate.queryForObject("SELECT id FROM flights", Long.class);
+    }
+
+    // Keep the tables the same size from one iteration to the next
+    @TearDown(Level.Iteration)
+    public void deleteInsertedRows() {
+        jdbcTemplate.update("DELETE FROM payments");
+        jdbcTemplate.update("DELETE FROM passengers");
+        jdbcTemplate.update("DELETE FROM bookings");
+        jdbcTemplate.update("DELETE FROM flights WHERE id <> ?", flightId);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FLIGHTS_PER_TRANSACTION)
+    public void insertFlights() {
+        transactionTemplate.executeWithoutResult(status -> {
+            EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+            LocalDateTime departure = LocalDateTime.now().plusDays(1);
+            for (int i = 0; i < FLIGHTS_PER_TRANSACTION; i++) {
+                Airport from = entityManager.getReference(Airport.class, airportIds.get(i % airportIds.size()));
+                Airport to = entityManager.getReference(Airport.class, airportIds.get((i + 1) % airportIds.size()));
+                LocalDateTime departureTime = departure.plusMinutes(i);
+                entityManager.persist(new Flight("IB" + sequence++, from, to, departureTime, departureTime.plusHours(2),
+                        180, BigDecimal.valueOf(100)));
+            }
+        });
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BOOKINGS_PER_TRANSACTION * ROWS_PER_BOOKING)
+    public void insertBookingsWithPassengers() {
+        transactionTemplate.executeWithoutResult(status -> {
+            EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+            Flight flight = entityManager.getReference(Flight.class, flightId);
+            for (int i = 0; i < BOOKINGS_PER_TRANSACTION; i++) {
+                Booking booking = new Booking(sequence, "user" + sequence + "@example.com", "First", "Last",
+                        flight, Flight.SeatClass.ECONOMY, PASSENGERS_PER_BOOKING, BigDecimal.valueOf(400));
+                for (int p = 0; p < PASSENGERS_PER_BOOKING; p++) {
+                    Passenger passenger = new Passenger("First", "Last", "P" + sequence++,
+                            LocalDate.of(1990, 1, 1), Passenger.Gender.OTHER);
+                    passenger.setBooking(booking);
+                    booking.getPassengers().add(passenger);
+                }
+                booking.getPayments().add(new Payment(booking, BigDecimal.valueOf(400), Payment.PaymentMethod.values()[0]));
+                entityManager.persist(booking);
+            }
+        });
+    }
+}
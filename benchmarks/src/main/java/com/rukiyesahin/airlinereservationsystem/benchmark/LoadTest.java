@@ -0,0 +1,355 @@
+package com.rukiyesahin.airlinereservationsystem.benchmark;
+
+import com.rukiyesahin.airlinereservationsystem.service.SeatInventory;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// Open-model HTTP load test for flight search and seat booking.
+// Requests start on a fixed schedule (constant arrival rate) whatever the response times, and
+// latency is measured from the scheduled start, so a slow server shows up as queueing delay
+// instead of quietly lowering the offered load. Ends by checking that every flight's
+// availableSeats went down by exactly the number of bookings that succeeded.
+// threads=both runs the same load against Tomcat's platform threads and then virtual threads.
+//
+// mvn -f benchmarks/pom.xml package exec:exec@load-test -Dload.args="rate=2000 duration=60"
+public final class LoadTest {
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final ConfigurableApplicationContext context;
+    private final Settings settings;
+    private final HttpClient client;
+    private final URI baseUri;
+    private final Random random = new Random(7);
+
+    private final List<String> airportCodes = new ArrayList<>();
+    private final Map<Long, Integer> initialSeats = new LinkedHashMap<>();
+    private final Long[] bookableFlights;
+    private final Map<Long, LongAdder> bookedSeats = new ConcurrentHashMap<>();
+    private final Map<Long, LongAdder> unknownBookings = new ConcurrentHashMap<>();
+    private final AtomicLong inFlight = new AtomicLong();
+    private final AtomicLong maxInFlight = new AtomicLong();
+    private final LocalDateTime firstDay = LocalDateTime.now().plusDays(1).withHour(0).withMinute(0).withSecond(0).withNano(0);
+
+    private LoadTest(ConfigurableApplicationContext context, Settings settings) {
+        this.context = context;
+        this.settings = settings;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(settings.timeoutSeconds))
+                .build();
+        this.baseUri = URI.create("http://localhost:" + BenchmarkApplication.localPort(context));
+
+        BenchmarkApplication.seedAirports(context, settings.airports, 42);
+        BenchmarkApplication.seedFlights(context, settings.flights, 42);
+        for (int i = 0; i < settings.airports; i++) {
+            airportCodes.add(BenchmarkApplication.code(i));
+        }
+        // Bookings are spread over a few flights so seats sell out and counters see contention
+        context.getBean(JdbcTemplate.class)
+                .query("SELECT id, available_seats FROM flights ORDER BY id LIMIT ?",
+                        row -> { initialSeats.put(row.getLong(1), row.getInt(2)); }, settings.bookedFlights);
+        this.bookableFlights = initialSeats.keySet().toArray(new Long[0]);
+        for (Long flightId : bookableFlights) {
+            bookedSeats.put(flightId, new LongAdder());
+            unknownBookings.put(flightId, new LongAdder());
+        }
+    }
+
+    // Each thread mode gets a fresh application and database, run one after the other. All modes
+    // share this JVM, so when comparing, a first unreported pass warms the JIT; otherwise whichever
+    // mode ran first would look slower.
+    public static void main(String[] args) throws Exception {
+        Settings settings = Settings.parse(args);
+        List<String> runs = new ArrayList<>(settings.threadModes);
+        if (runs.size() > 1) {
+            runs.add(0, runs.get(0));
+        }
+        Map<String, Phase> results = new LinkedHashMap<>();
+        int exitCode = 0;
+        for (int i = 0; i < runs.size(); i++) {
+            String mode = runs.get(i);
+            boolean primer = runs.size() > settings.threadModes.size() && i == 0;
+            List<String> springArgs = new ArrayList<>(settings.springArgs);
+            springArgs.addAll(springArgsFor(mode));
+            System.out.printf("%n=== %s threads%s %s%n", mode, primer ? " (JIT warm-up, not reported)" : "", springArgs);
+            ConfigurableApplicationContext context = BenchmarkApplication.startServer(springArgs.toArray(new String[0]));
+            try {
+                LoadTest loadTest = new LoadTest(context, settings);
+                Phase measured = loadTest.run();
+                if (!loadTest.verifySeats()) {
+                    exitCode = 1;
+                }
+                if (!primer) {
+                    results.put(mode, measured);
+                }
+            } finally {
+                context.close();
+            }
+        }
+        if (results.size() > 1) {
+            System.out.printf("%n%-9s %10s %8s %10s %10s %10s %10s %10s%n",
+                    "threads", "req/s", "failed", "search p50", "p90", "p99", "p99.9", "max");
+            results.forEach((mode, phase) -> phase.summarize(mode));
+        }
+        System.exit(exitCode);
+    }
+
+    // Platform threads are Tomcat's pool (server.tomcat.threads.max); virtual threads need Java 21
+    private static List<String> springArgsFor(String mode) {
+        return switch (mode) {
+            case "platform" -> List.of("--spring.threads.virtual.enabled=false");
+            case "virtual" -> {
+                if (Runtime.version().feature() < 21) {
+                    throw new IllegalStateException("threads=virtual needs Java 21, this is Java " + Runtime.version());
+                }
+                yield List.of("--spring.profiles.include=virtual-threads");
+            }
+            default -> throw new IllegalArgumentException("Unknown thread mode: " + mode);
+        };
+    }
+
+    private Phase run() throws InterruptedException {
+        System.out.printf("Offered load %d req/s (%.0f%% bookings) for %ds after %ds warmup, %d flights, %d airports%n",
+                settings.rate, settings.bookingShare * 100, settings.durationSeconds, settings.warmupSeconds,
+                settings.flights, settings.airports);
+        drive(settings.warmupSeconds);
+        Phase measured = drive(settings.durationSeconds);
+        measured.report();
+        return measured;
+    }
+
+    // Start rate * seconds requests at evenly spaced times, then wait for the stragglers
+    private Phase drive(int seconds) throws InterruptedException {
+        Phase phase = new Phase();
+        long total = (long) settings.rate * seconds;
+        long start = System.nanoTime();
+        for (long i = 0; i < total; i++) {
+            long intendedStart = start + i * NANOS_PER_SECOND / settings.rate;
+            long wait;
+            while ((wait = intendedStart - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            send(phase, intendedStart);
+        }
+        long drainDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(settings.timeoutSeconds + 5L);
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(10);
+        }
+        phase.elapsedNanos = System.nanoTime() - start;
+        return phase;
+    }
+
+    private void send(Phase phase, long intendedStart) {
+        boolean booking = random.nextDouble() < settings.bookingShare;
+        Long flightId = booking ? bookableFlights[random.nextInt(bookableFlights.length)] : null;
+        HttpRequest request = booking ? bookingRequest(flightId) : searchRequest();
+        Outcome outcome = booking ? phase.booking : phase.search;
+        // Past the cap the client would run out of sockets, so the request is counted as dropped
+        if (inFlight.get() >= settings.maxInFlight) {
+            outcome.dropped.increment();
+            return;
+        }
+
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+            outcome.latency.recordValue(System.nanoTime() - intendedStart);
+            if (error != null) {
+                outcome.errors.increment();
+                // The server may still have taken the seat
+                if (booking && isTimeout(error)) {
+                    unknownBookings.get(flightId).increment();
+                }
+            } else if (response.statusCode() == 200) {
+                outcome.succeeded.increment();
+                if (booking) {
+                    bookedSeats.get(flightId).increment();
+                }
+            } else if (booking && response.statusCode() == 400) {
+                outcome.rejected.increment();
+            } else {
+                outcome.errors.increment();
+            }
+            inFlight.decrementAndGet();
+        });
+    }
+
+    private HttpRequest searchRequest() {
+        int departure = random.nextInt(airportCodes.size());
+        int arrival = (departure + 1 + random.nextInt(airportCodes.size() - 1)) % airportCodes.size();
+        LocalDateTime date = firstDay.plusDays(random.nextInt(30));
+        URI uri = baseUri.resolve("/api/flights/search?departureCode=" + airportCodes.get(departure)
+                + "&arrivalCode=" + airportCodes.get(arrival) + "&departureDate=" + date);
+        return HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(settings.timeoutSeconds)).GET().build();
+    }
+
+    private HttpRequest bookingRequest(Long flightId) {
+        URI uri = baseUri.resolve("/api/flights/" + flightId + "/book-seat");
+        return HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(settings.timeoutSeconds))
+                .POST(HttpRequest.BodyPublishers.noBody()).build();
+    }
+
+    private static boolean isTimeout(Throwable error) {
+        Throwable cause = error.getCause() != null ? error.getCause() : error;
+        return cause instanceof HttpTimeoutException || cause instanceof IOException;
+    }
+
+    // availableSeats must equal the starting seats minus successful bookings; a booking that
+    // timed out on the client may or may not have been applied
+    private boolean verifySeats() {
+        context.getBean(SeatInventory.class).flush();
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        Map<Long, Integer> actualSeats = new HashMap<>();
+        jdbcTemplate.query("SELECT id, available_seats FROM flights ORDER BY id LIMIT ?",
+                row -> { actualSeats.put(row.getLong(1), row.getInt(2)); }, settings.bookedFlights);
+
+        int mismatches = 0;
+        long totalBooked = 0;
+        for (Map.Entry<Long, Integer> entry : initialSeats.entrySet()) {
+            Long flightId = entry.getKey();
+            long booked = bookedSeats.get(flightId).sum();
+            long unknown = unknownBookings.get(flightId).sum();
+            long expected = entry.getValue() - booked;
+            int actual = actualSeats.get(flightId);
+            totalBooked += booked;
+            if (actual < 0 || actual > expected || actual < expected - unknown) {
+                mismatches++;
+                System.out.printf("  flight %d: started with %d seats, %d booked (%d unknown), availableSeats is %d%n",
+                        flightId, entry.getValue(), booked, unknown, actual);
+            }
+        }
+        System.out.printf("Seat check: %d seats booked on %d flights, %s%n", totalBooked, initialSeats.size(),
+                mismatches == 0 ? "PASSED" : "FAILED on " + mismatches + " flights");
+        return mismatches == 0;
+    }
+
+    private final class Phase {
+        private final Outcome search = new Outcome("search");
+        private final Outcome booking = new Outcome("book-seat");
+        private long elapsedNanos;
+
+        private void report() {
+            double seconds = (double) elapsedNanos / NANOS_PER_SECOND;
+            long completed = search.completed() + booking.completed();
+            long failed = search.failed() + booking.failed();
+            long offered = completed + search.dropped.sum() + booking.dropped.sum();
+            System.out.printf("Completed %d requests in %.1fs: %.0f req/s, %d failed or dropped (%.3f%%), max %d in flight%n",
+                    completed, seconds, completed / seconds, failed,
+                    offered == 0 ? 0.0 : 100.0 * failed / offered, maxInFlight.get());
+            search.report();
+            booking.report();
+        }
+
+        // One row of the comparison table printed when several thread modes were run
+        private void summarize(String mode) {
+            double seconds = (double) elapsedNanos / NANOS_PER_SECOND;
+            long completed = search.completed() + booking.completed();
+            Histogram latency = search.latency;
+            System.out.printf("%-9s %10.0f %8d %8.2fms %8.2fms %8.2fms %8.2fms %8.2fms%n",
+                    mode, completed / seconds, search.failed() + booking.failed(),
+                    Outcome.millis(latency.getValueAtPercentile(50)), Outcome.millis(latency.getValueAtPercentile(90)),
+                    Outcome.millis(latency.getValueAtPercentile(99)), Outcome.millis(latency.getValueAtPercentile(99.9)),
+                    Outcome.millis(latency.getMaxValue()));
+        }
+    }
+
+    private static final class Outcome {
+        private final String name;
+        private final Histogram latency = new ConcurrentHistogram(3);
+        private final LongAdder succeeded = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+
+        private Outcome(String name) {
+            this.name = name;
+        }
+
+        private long completed() {
+            return succeeded.sum() + rejected.sum() + errors.sum();
+        }
+
+        private long failed() {
+            return errors.sum() + dropped.sum();
+        }
+
+        private void report() {
+            System.out.printf("  %-9s n=%-8d ok=%-8d rejected=%-7d errors=%-6d dropped=%-6d p50=%.2fms p90=%.2fms p99=%.2fms "
+                            + "p99.9=%.2fms p99.99=%.2fms max=%.2fms%n",
+                    name, completed(), succeeded.sum(), rejected.sum(), errors.sum(), dropped.sum(),
+                    millis(latency.getValueAtPercentile(50)), millis(latency.getValueAtPercentile(90)),
+                    millis(latency.getValueAtPercentile(99)), millis(latency.getValueAtPercentile(99.9)),
+                    millis(latency.getValueAtPercentile(99.99)), millis(latency.getMaxValue()));
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
+
+    // key=value arguments; anything starting with -- is passed on to the application
+    private static final class Settings {
+        private int rate = 2000;
+        private int durationSeconds = 30;
+        private int warmupSeconds = 10;
+        private double bookingShare = 0.2;
+        private int airports = 200;
+        private int flights = 20000;
+        private int bookedFlights = 50;
+        private int timeoutSeconds = 10;
+        private int maxInFlight = 5000;
+        private List<String> threadModes = List.of("platform");
+        private final List<String> springArgs = new ArrayList<>();
+
+        private static Settings parse(String[] args) {
+            Settings settings = new Settings();
+            for (String arg : args) {
+                if (arg.startsWith("--")) {
+                    settings.springArgs.add(arg);
+                    continue;
+                }
+                String[] pair = arg.split("=", 2);
+                if (pair.length != 2) {
+                    throw new IllegalArgumentException("Expected key=value but got: " + arg);
+                }
+                switch (pair[0]) {
+                    case "rate" -> settings.rate = Integer.parseInt(pair[1]);
+                    case "duration" -> settings.durationSeconds = Integer.parseInt(pair[1]);
+                    case "warmup" -> settings.warmupSeconds = Integer.parseInt(pair[1]);
+                    case "bookingShare" -> settings.bookingShare = Double.parseDouble(pair[1]);
+                    case "airports" -> settings.airports = Integer.parseInt(pair[1]);
+                    case "flights" -> settings.flights = Integer.parseInt(pair[1]);
+                    case "bookedFlights" -> settings.bookedFlights = Integer.parseInt(pair[1]);
+                    case "timeout" -> settings.timeoutSeconds = Integer.parseInt(pair[1]);
+                    case "maxInFlight" -> settings.maxInFlight = Integer.parseInt(pair[1]);
+                    case "threads" -> settings.threadModes = pair[1].equals("both")
+                            ? List.of("platform", "virtual") : List.of(pair[1].split(","));
+                    default -> throw new IllegalArgumentException("Unknown setting: " + pair[0]);
+                }
+            }
+            return settings;
+        }
+    }
+}
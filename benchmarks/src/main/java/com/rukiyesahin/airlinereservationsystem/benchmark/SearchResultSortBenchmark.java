@@ -0,0 +1,80 @@
+package com.rukiyesahin.airlinereservationsystem.benchmark;
+
+import com.rukiyesahin.airlinereservationsystem.dto.FlightSummary;
+import com.rukiyesahin.airlinereservationsystem.entity.Flight;
+import com.rukiyesahin.airlinereservationsystem.money.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Sorting search results cheapest first: FlightSummary.BY_FARE on Money minor units against
+// the same ordering on BigDecimal prices, as search results carried them before
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchResultSortBenchmark {
+
+    private static final Comparator<LegacySummary> LEGACY_BY_FARE = Comparator
+            .comparing(LegacySummary::basePrice)
+            .thenComparing(LegacySummary::departureTime)
+            .thenComparing(LegacySummary::id);
+
+    @Param({"100", "10000"})
+    private int flightCount;
+
+    private List<FlightSummary> summaries;
+    private List<LegacySummary> legacySummaries;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        LocalDateTime departure = LocalDateTime.now().plusDays(7);
+        summaries = new ArrayList<>(flightCount);
+        legacySummaries = new ArrayList<>(flightCount);
+        for (int i = 0; i < flightCount; i++) {
+            long cents = 5_000 + random.nextInt(95_000);
+            LocalDateTime time = departure.plusMinutes(random.nextInt(1440));
+            Money price = Money.ofMinor(cents);
+            summaries.add(new FlightSummary((long) i, "SR" + i, "IST", "Istanbul", "JFK", "New York", time,
+                    time.plusHours(10), Flight.FlightStatus.SCHEDULED, 180, price, price.timesPercent(250),
+                    price.timesPercent(400), null, null, null));
+            legacySummaries.add(new LegacySummary((long) i, time, BigDecimal.valueOf(cents, 2)));
+        }
+    }
+
+    @Benchmark
+    public List<FlightSummary> sortByFare() {
+        List<FlightSummary> sorted = new ArrayList<>(summaries);
+        sorted.sort(FlightSummary.BY_FARE);
+        return sorted;
+    }
+
+    @Benchmark
+    public List<LegacySummary> legacySortByFare() {
+        List<LegacySummary> sorted = new ArrayList<>(legacySummaries);
+        sorted.sort(LEGACY_BY_FARE);
+        return sorted;
+    }
+
+    public record LegacySummary(Long id, LocalDateTime departureTime, BigDecimal basePrice) {}
+}
@@ -0,0 +1,92 @@
+package com.rukiyesahin.airlinereservationsystem.entity;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Booking payment totals, refund rules and booking reference generation.
+// Lives in the entity package so it can call the protected @PrePersist callback directly.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingBenchmark {
+
+    @Param({"1000", "100000"})
+    private int bookingCount;
+
+    @Param({"1", "8"})
+    private int paymentsPerBooking;
+
+    private Booking[] bookings;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.now();
+        // Departures spread over the three refund windows: within 2h, 2-24h and later
+        Flight[] flights = new Flight[] {
+                flight("RB1", now.plusMinutes(90)),
+                flight("RB2", now.plusHours(12)),
+                flight("RB3", now.plusDays(5))
+        };
+        bookings = new Booking[bookingCount];
+        for (int i = 0; i < bookingCount; i++) {
+            BigDecimal totalPrice = BigDecimal.valueOf(100 + random.nextInt(2000), 0).setScale(2);
+            Booking booking = new Booking((long) i, "user" + i + "@example.com", "First", "Last",
+                    flights[i % flights.length], Flight.SeatClass.ECONOMY, 1, totalPrice);
+            BigDecimal instalment = totalPrice.divide(BigDecimal.valueOf(paymentsPerBooking), 2, RoundingMode.HALF_UP);
+            for (int p = 0; p < paymentsPerBooking; p++) {
+                Payment payment = new Payment(booking, instalment, Payment.PaymentMethod.values()[p % Payment.PaymentMethod.values().length]);
+                payment.setStatus(p % 4 == 3 ? Payment.PaymentStatus.FAILED : Payment.PaymentStatus.COMPLETED);
+                booking.getPayments().add(payment);
+            }
+            bookings[i] = booking;
+        }
+    }
+
+    @Benchmark
+    public void totalPaid(Blackhole blackhole) {
+        for (Booking booking : bookings) {
+            blackhole.consume(booking.getTotalPaid());
+        }
+    }
+
+    @Benchmark
+    public void refundAmount(Blackhole blackhole) {
+        for (Booking booking : bookings) {
+            blackhole.consume(booking.getRefundAmount());
+        }
+    }
+
+    @Benchmark
+    public void generateReferences(Blackhole blackhole) {
+        for (Booking booking : bookings) {
+            booking.setBookingReference(null);
+            booking.onCreate();
+            blackhole.consume(booking.getBookingReference());
+        }
+    }
+
+    private static Flight flight(String flightNumber, LocalDateTime departure) {
+        return new Flight(flightNumber, null, null, departure, departure.plusHours(3), 180, BigDecimal.valueOf(100));
+    }
+}
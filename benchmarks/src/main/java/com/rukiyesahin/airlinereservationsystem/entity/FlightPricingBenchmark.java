@@ -0,0 +1,103 @@
+package com.rukiyesahin.airlinereservationsystem.entity;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Flight pricing over every seat class of a schedule; half the flights have no stored
+// business/first class price, so the multiplier fallback is measured as well. legacy* runs the
+// BigDecimal arithmetic getPriceForClass did before prices became Money, for comparison with
+// getFareMinorUnits; run with -prof gc to compare allocation per operation too.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FlightPricingBenchmark {
+
+    private static final Flight.SeatClass[] SEAT_CLASSES = Flight.SeatClass.values();
+
+    @Param({"1000", "100000"})
+    private int flightCount;
+
+    private Flight[] flights;
+    private BigDecimal[][] legacyPrices;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        LocalDateTime departure = LocalDateTime.now().plusDays(7);
+        flights = new Flight[flightCount];
+        legacyPrices = new BigDecimal[flightCount][];
+        for (int i = 0; i < flightCount; i++) {
+            BigDecimal basePrice = BigDecimal.valueOf(50 + random.nextInt(950), 0).setScale(2);
+            Flight flight = new Flight("PB" + i, null, null, departure, departure.plusHours(3), 180, basePrice);
+            if (i % 2 == 0) {
+                flight.setBusinessClassPrice(basePrice.multiply(BigDecimal.valueOf(2.5)));
+                flight.setFirstClassPrice(basePrice.multiply(BigDecimal.valueOf(4.0)));
+            }
+            flights[i] = flight;
+            legacyPrices[i] = new BigDecimal[] {
+                    flight.getBasePrice(), flight.getBusinessClassPrice(), flight.getFirstClassPrice()};
+        }
+    }
+
+    @Benchmark
+    public void priceAllClasses(Blackhole blackhole) {
+        for (Flight flight : flights) {
+            for (Flight.SeatClass seatClass : SEAT_CLASSES) {
+                blackhole.consume(flight.getPriceForClass(seatClass));
+            }
+        }
+    }
+
+    @Benchmark
+    public void fareAllClasses(Blackhole blackhole) {
+        for (Flight flight : flights) {
+            for (Flight.SeatClass seatClass : SEAT_CLASSES) {
+                blackhole.consume(flight.getFareMinorUnits(seatClass));
+            }
+        }
+    }
+
+    @Benchmark
+    public void legacyPriceAllClasses(Blackhole blackhole) {
+        for (BigDecimal[] prices : legacyPrices) {
+            for (Flight.SeatClass seatClass : SEAT_CLASSES) {
+                blackhole.consume(legacyPriceForClass(prices, seatClass));
+            }
+        }
+    }
+
+    @Benchmark
+    public void priceEconomy(Blackhole blackhole) {
+        for (Flight flight : flights) {
+            blackhole.consume(flight.getPriceForClass(Flight.SeatClass.ECONOMY));
+        }
+    }
+
+    // getPriceForClass as it was when the price fields were BigDecimal
+    private static BigDecimal legacyPriceForClass(BigDecimal[] prices, Flight.SeatClass seatClass) {
+        return switch (seatClass) {
+            case ECONOMY -> prices[0];
+            case BUSINESS -> prices[1] != null ? prices[1] : prices[0].multiply(BigDecimal.valueOf(2.5));
+            case FIRST -> prices[2] != null ? prices[2] : prices[0].multiply(BigDecimal.valueOf(4.0));
+        };
+    }
+}
@@ -0,0 +1,52 @@
+package com.rukiyesahin.airlinereservationsystem.controller;
+
+import com.rukiyesahin.airlinereservationsystem.service.AdminService;
+import com.rukiyesahin.airlinereservationsystem.service.SlowQueryRecorder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin")
+@CrossOrigin(origins = "*")
+public class AdminController {
+
+    @Autowired
+    private AdminService adminService;
+
+    // Get the most recent slow queries, newest first
+    @GetMapping("/slow-queries")
+    public ResponseEntity<List<SlowQueryRecorder.SlowQuery>> getSlowQueries(
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(adminService.getSlowQueries(limit));
+    }
+
+    // Get slow-query log settings and the slow statements grouped by SQL
+    @GetMapping("/slow-queries/summary")
+    public ResponseEntity<Map<String, Object>> getSlowQuerySummary() {
+        return ResponseEntity.ok(adminService.getSlowQuerySummary());
+    }
+
+    // Clear the slow-query log
+    @DeleteMapping("/slow-queries")
+    public ResponseEntity<Void> clearSlowQueries() {
+        adminService.clearSlowQueries();
+        return ResponseEntity.noContent().build();
+    }
+
+    // Get Hibernate session statistics
+    @GetMapping("/hibernate-statistics")
+    public ResponseEntity<Map<String, Object>> getHibernateStatistics() {
+        return ResponseEntity.ok(adminService.getHibernateStatistics());
+    }
+
+    // Reset Hibernate session statistics
+    @DeleteMapping("/hibernate-statistics")
+    public ResponseEntity<Void> clearHibernateStatistics() {
+        adminService.clearHibernateStatistics();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,11 +1,18 @@
 package com.rukiyesahin.airlinereservationsystem.controller;
 
+import com.rukiyesahin.airlinereservationsystem.dto.AircraftSummary;
+import com.rukiyesahin.airlinereservationsystem.dto.MaintenanceSlot;
 import com.rukiyesahin.airlinereservationsystem.entity.Aircraft;
 import com.rukiyesahin.airlinereservationsystem.service.AircraftService;
+import com.rukiyesahin.airlinereservationsystem.service.CatalogImportService;
+import com.rukiyesahin.airlinereservationsystem.service.CursorPage;
+import com.rukiyesahin.airlinereservationsystem.service.ExportService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -17,12 +24,26 @@ public class AircraftController {
     @Autowired
     private AircraftService aircraftService;
 
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private CatalogImportService catalogImportService;
+
     // Create new aircraft
     @PostMapping
     public ResponseEntity<Aircraft> createAircraft(@RequestBody Aircraft aircraft) {
         return ResponseEntity.ok(aircraftService.createAircraft(aircraft));
     }
 
+    // Insert or update aircraft from a CSV file keyed on registration, writing only new and changed rows
+    @PostMapping(value = "/import", consumes = {"text/csv", "text/plain"})
+    public ResponseEntity<CatalogImportService.UpsertReport> importAircraft(
+            InputStream body,
+            @RequestParam(required = false) Integer batchSize) {
+        return ResponseEntity.ok(catalogImportService.upsertAircraft(body, batchSize));
+    }
+
     // Get aircraft by ID
     @GetMapping("/{id}")
     public ResponseEntity<Aircraft> getAircraftById(@PathVariable Long id) {
@@ -37,14 +58,25 @@ public class AircraftController {
 
     // Get all aircraft
     @GetMapping
-    public ResponseEntity<List<Aircraft>> getAllAircraft() {
-        return ResponseEntity.ok(aircraftService.getAllAircraft());
+    public ResponseEntity<CursorPage<AircraftSummary>> getAllAircraft(
+            @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(aircraftService.getAllAircraft(cursor, size));
+    }
+
+    // Export all aircraft as newline-delimited JSON, also served for Accept: application/x-ndjson
+    @GetMapping(value = {"", "/export"}, produces = ExportService.NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportAircraft() {
+        return ResponseEntity.ok()
+                .contentType(ExportService.NDJSON)
+                .body(exportService::writeAircraft);
     }
 
     // Get aircraft by status
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<Aircraft>> getAircraftByStatus(@PathVariable Aircraft.AircraftStatus status) {
-        return ResponseEntity.ok(aircraftService.getAircraftByStatus(status));
+    public ResponseEntity<CursorPage<AircraftSummary>> getAircraftByStatus(
+            @PathVariable Aircraft.AircraftStatus status,
+            @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(aircraftService.getAircraftByStatus(status, cursor, size));
     }
 
     // Get aircraft by manufacturer
@@ -85,6 +117,12 @@ public class AircraftController {
         return ResponseEntity.ok(aircraftService.getActiveAircraft());
     }
 
+    // Get active aircraft free to fly between two times
+    @GetMapping("/available")
+    public ResponseEntity<List<Aircraft>> getAvailableAircraft(@RequestParam String from, @RequestParam String to) {
+        return ResponseEntity.ok(aircraftService.getAvailableAircraft(LocalDateTime.parse(from), LocalDateTime.parse(to)));
+    }
+
     // Get aircraft in maintenance
     @GetMapping("/maintenance")
     public ResponseEntity<List<Aircraft>> getAircraftInMaintenance() {
@@ -191,6 +229,12 @@ public class AircraftController {
         return ResponseEntity.ok(aircraftService.scheduleMaintenance(id, LocalDateTime.parse(maintenanceDate)));
     }
 
+    // Proposed maintenance slots for the fleet
+    @GetMapping("/maintenance-plan")
+    public ResponseEntity<List<MaintenanceSlot>> getMaintenancePlan(@RequestParam(required = false) Integer horizonDays) {
+        return ResponseEntity.ok(aircraftService.getMaintenancePlan(horizonDays));
+    }
+
     // Complete maintenance
     @PutMapping("/{id}/complete-maintenance")
     public ResponseEntity<Aircraft> completeMaintenance(@PathVariable Long id) {
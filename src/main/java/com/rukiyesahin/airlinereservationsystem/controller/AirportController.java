@@ -1,14 +1,21 @@
 package com.rukiyesahin.airlinereservationsystem.controller;
 
+import com.rukiyesahin.airlinereservationsystem.dto.AirportSummary;
 import com.rukiyesahin.airlinereservationsystem.entity.Airport;
+import com.rukiyesahin.airlinereservationsystem.service.AirportGeoIndex;
+import com.rukiyesahin.airlinereservationsystem.service.AirportSearchIndex;
 import com.rukiyesahin.airlinereservationsystem.service.AirportService;
+import com.rukiyesahin.airlinereservationsystem.service.CatalogImportService;
+import com.rukiyesahin.airlinereservationsystem.service.CursorPage;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/airports")
@@ -18,6 +25,9 @@ public class AirportController {
     @Autowired
     private AirportService airportService;
 
+    @Autowired
+    private CatalogImportService catalogImportService;
+
     // Create new airport
     @PostMapping
     public ResponseEntity<Airport> createAirport(@Valid @RequestBody Airport airport) {
@@ -25,6 +35,14 @@ public class AirportController {
         return new ResponseEntity<>(createdAirport, HttpStatus.CREATED);
     }
 
+    // Insert or update airports from a CSV file keyed on code, writing only new and changed rows
+    @PostMapping(value = "/import", consumes = {"text/csv", "text/plain"})
+    public ResponseEntity<CatalogImportService.UpsertReport> importAirports(
+            InputStream body,
+            @RequestParam(required = false) Integer batchSize) {
+        return ResponseEntity.ok(catalogImportService.upsertAirports(body, batchSize));
+    }
+
     // Get airport by ID
     @GetMapping("/{id}")
     public ResponseEntity<Airport> getAirportById(@PathVariable Long id) {
@@ -39,10 +57,18 @@ public class AirportController {
         return ResponseEntity.ok(airport);
     }
 
+    // Get airport cache hit/miss metrics
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Map<String, Object>>> getCacheStats() {
+        return ResponseEntity.ok(airportService.getCacheStats());
+    }
+
     // Get all airports
     @GetMapping
-    public ResponseEntity<List<Airport>> getAllAirports() {
-        List<Airport> airports = airportService.getAllAirports();
+    public ResponseEntity<CursorPage<AirportSummary>> getAllAirports(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPage<AirportSummary> airports = airportService.getAllAirports(cursor, size);
         return ResponseEntity.ok(airports);
     }
 
@@ -55,15 +81,21 @@ public class AirportController {
 
     // Get airports by country
     @GetMapping("/country/{country}")
-    public ResponseEntity<List<Airport>> getAirportsByCountry(@PathVariable String country) {
-        List<Airport> airports = airportService.getAirportsByCountry(country);
+    public ResponseEntity<CursorPage<AirportSummary>> getAirportsByCountry(
+            @PathVariable String country,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPage<AirportSummary> airports = airportService.getAirportsByCountry(country, cursor, size);
         return ResponseEntity.ok(airports);
     }
 
     // Get airports by city
     @GetMapping("/city/{city}")
-    public ResponseEntity<List<Airport>> getAirportsByCity(@PathVariable String city) {
-        List<Airport> airports = airportService.getAirportsByCity(city);
+    public ResponseEntity<CursorPage<AirportSummary>> getAirportsByCity(
+            @PathVariable String city,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPage<AirportSummary> airports = airportService.getAirportsByCity(city, cursor, size);
         return ResponseEntity.ok(airports);
     }
 
@@ -76,8 +108,37 @@ public class AirportController {
 
     // Search airports by name
     @GetMapping("/search")
-    public ResponseEntity<List<Airport>> searchAirportsByName(@RequestParam String name) {
-        List<Airport> airports = airportService.searchAirportsByName(name);
+    public ResponseEntity<List<AirportSummary>> searchAirportsByName(@RequestParam String name) {
+        List<AirportSummary> airports = airportService.searchAirportsByName(name);
+        return ResponseEntity.ok(airports);
+    }
+
+    // Typeahead search by code, city or name prefix
+    @GetMapping("/typeahead")
+    public ResponseEntity<List<AirportSearchIndex.AirportSuggestion>> suggestAirports(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        List<AirportSearchIndex.AirportSuggestion> suggestions = airportService.suggestAirports(q, limit);
+        return ResponseEntity.ok(suggestions);
+    }
+
+    // Get the airports nearest to a point
+    @GetMapping("/nearest")
+    public ResponseEntity<List<AirportGeoIndex.NearbyAirport>> getNearestAirports(
+            @RequestParam double latitude,
+            @RequestParam double longitude,
+            @RequestParam(defaultValue = "5") int count) {
+        List<AirportGeoIndex.NearbyAirport> airports = airportService.getNearestAirports(latitude, longitude, count);
+        return ResponseEntity.ok(airports);
+    }
+
+    // Get airports within a radius (km) of a point
+    @GetMapping("/within-radius")
+    public ResponseEntity<List<AirportGeoIndex.NearbyAirport>> getAirportsWithinRadius(
+            @RequestParam double latitude,
+            @RequestParam double longitude,
+            @RequestParam double radiusKm) {
+        List<AirportGeoIndex.NearbyAirport> airports = airportService.getAirportsWithinRadius(latitude, longitude, radiusKm);
         return ResponseEntity.ok(airports);
     }
 
@@ -1,13 +1,24 @@
 package com.rukiyesahin.airlinereservationsystem.controller;
 
+import com.rukiyesahin.airlinereservationsystem.dto.FlightSummary;
 import com.rukiyesahin.airlinereservationsystem.entity.Flight;
+import com.rukiyesahin.airlinereservationsystem.service.CursorPage;
+import com.rukiyesahin.airlinereservationsystem.service.DelayPropagationService;
+import com.rukiyesahin.airlinereservationsystem.service.ExportService;
+import com.rukiyesahin.airlinereservationsystem.service.FlightEventBroadcaster;
+import com.rukiyesahin.airlinereservationsystem.service.FlightImportService;
 import com.rukiyesahin.airlinereservationsystem.service.FlightService;
+import com.rukiyesahin.airlinereservationsystem.service.ItinerarySearchService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.Duration;
@@ -21,6 +32,18 @@ public class FlightController {
     @Autowired
     private FlightService flightService;
 
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private FlightImportService flightImportService;
+
+    @Autowired
+    private FlightEventBroadcaster flightEventBroadcaster;
+
+    @Autowired
+    private DelayPropagationService delayPropagationService;
+
     // Create new flight
     @PostMapping
     public ResponseEntity<Flight> createFlight(@Valid @RequestBody Flight flight) {
@@ -28,6 +51,25 @@ public class FlightController {
         return new ResponseEntity<>(createdFlight, HttpStatus.CREATED);
     }
 
+    // Import a CSV schedule with a header row, inserting batchSize rows per transaction
+    @PostMapping(value = "/import", consumes = {"text/csv", "text/plain"})
+    public ResponseEntity<FlightImportService.ImportReport> importFlights(
+            InputStream body,
+            @RequestParam(required = false) Integer batchSize) {
+        return ResponseEntity.ok(flightImportService.importFlights(body, batchSize));
+    }
+
+    // Stream flight changes as server-sent events, optionally for one flight and/or airport
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamFlightEvents(
+            @RequestParam(required = false) Long flightId,
+            @RequestParam(required = false) String airport) {
+        if (flightId != null) {
+            flightService.getFlightById(flightId);
+        }
+        return flightEventBroadcaster.subscribe(flightId, airport);
+    }
+
     // Get flight by ID
     @GetMapping("/{id}")
     public ResponseEntity<Flight> getFlightById(@PathVariable Long id) {
@@ -44,11 +86,21 @@ public class FlightController {
 
     // Get all flights
     @GetMapping
-    public ResponseEntity<List<Flight>> getAllFlights() {
-        List<Flight> flights = flightService.getAllFlights();
+    public ResponseEntity<CursorPage<Flight>> getAllFlights(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPage<Flight> flights = flightService.getAllFlights(cursor, size);
         return ResponseEntity.ok(flights);
     }
 
+    // Export all flights as newline-delimited JSON, also served for Accept: application/x-ndjson
+    @GetMapping(value = {"", "/export"}, produces = ExportService.NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportFlights() {
+        return ResponseEntity.ok()
+                .contentType(ExportService.NDJSON)
+                .body(exportService::writeFlights);
+    }
+
     // Get available flights
     @GetMapping("/available")
     public ResponseEntity<List<Flight>> getAvailableFlights() {
@@ -58,32 +110,50 @@ public class FlightController {
 
     // Search flights by route and date
     @GetMapping("/search")
-    public ResponseEntity<List<Flight>> searchFlights(
+    public ResponseEntity<List<FlightSummary>> searchFlights(
             @RequestParam String departureCode,
             @RequestParam String arrivalCode,
-            @RequestParam String departureDate) {
+            @RequestParam String departureDate,
+            @RequestParam(required = false) String sort) {
         LocalDateTime date = LocalDateTime.parse(departureDate);
-        List<Flight> flights = flightService.searchFlights(departureCode, arrivalCode, date);
-        return ResponseEntity.ok(flights);
+        List<FlightSummary> flights = flightService.searchFlights(departureCode, arrivalCode, date);
+        return ResponseEntity.ok(flightService.sortSearchResults(flights, sort));
     }
 
     // Search flights by route and date range
     @GetMapping("/search/range")
-    public ResponseEntity<List<Flight>> searchFlightsByDateRange(
+    public ResponseEntity<List<FlightSummary>> searchFlightsByDateRange(
             @RequestParam String departureCode,
             @RequestParam String arrivalCode,
             @RequestParam String startDate,
-            @RequestParam String endDate) {
+            @RequestParam String endDate,
+            @RequestParam(required = false) String sort) {
         LocalDateTime start = LocalDateTime.parse(startDate);
         LocalDateTime end = LocalDateTime.parse(endDate);
-        List<Flight> flights = flightService.searchFlightsByDateRange(departureCode, arrivalCode, start, end);
-        return ResponseEntity.ok(flights);
+        List<FlightSummary> flights = flightService.searchFlightsByDateRange(departureCode, arrivalCode, start, end);
+        return ResponseEntity.ok(flightService.sortSearchResults(flights, sort));
+    }
+
+    // Search direct and connecting itineraries
+    @GetMapping("/search/connections")
+    public ResponseEntity<List<ItinerarySearchService.Itinerary>> searchConnections(
+            @RequestParam String departureCode,
+            @RequestParam String arrivalCode,
+            @RequestParam String departureDate,
+            @RequestParam(defaultValue = "2") int maxStops) {
+        LocalDateTime date = LocalDateTime.parse(departureDate);
+        List<ItinerarySearchService.Itinerary> itineraries =
+                flightService.searchConnections(departureCode, arrivalCode, date, maxStops);
+        return ResponseEntity.ok(itineraries);
     }
 
     // Get flights by status
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<Flight>> getFlightsByStatus(@PathVariable Flight.FlightStatus status) {
-        List<Flight> flights = flightService.getFlightsByStatus(status);
+    public ResponseEntity<CursorPage<Flight>> getFlightsByStatus(
+            @PathVariable Flight.FlightStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPage<Flight> flights = flightService.getFlightsByStatus(status, cursor, size);
         return ResponseEntity.ok(flights);
     }
 
@@ -146,6 +216,14 @@ public class FlightController {
         return ResponseEntity.ok(flight);
     }
 
+    // Delay flight and the later flights of its aircraft that it holds up
+    @PutMapping("/{id}/delay/cascade")
+    public ResponseEntity<DelayPropagationService.Propagation> delayFlightWithRotation(
+            @PathVariable Long id, @RequestBody DelayRequest request) {
+        Duration delay = Duration.ofMinutes(request.getDelayMinutes());
+        return ResponseEntity.ok(delayPropagationService.delayWithRotation(id, delay));
+    }
+
     // Book seat on flight
     @PostMapping("/{id}/book-seat")
     public ResponseEntity<Void> bookSeat(@PathVariable Long id) {
@@ -169,15 +247,21 @@ public class FlightController {
 
     // Get flights by country
     @GetMapping("/country/{country}")
-    public ResponseEntity<List<Flight>> getFlightsByCountry(@PathVariable String country) {
-        List<Flight> flights = flightService.getFlightsByCountry(country);
+    public ResponseEntity<CursorPage<Flight>> getFlightsByCountry(
+            @PathVariable String country,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPage<Flight> flights = flightService.getFlightsByCountry(country, cursor, size);
         return ResponseEntity.ok(flights);
     }
 
     // Get flights by city
     @GetMapping("/city/{city}")
-    public ResponseEntity<List<Flight>> getFlightsByCity(@PathVariable String city) {
-        List<Flight> flights = flightService.getFlightsByCity(city);
+    public ResponseEntity<CursorPage<Flight>> getFlightsByCity(
+            @PathVariable String city,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPage<Flight> flights = flightService.getFlightsByCity(city, cursor, size);
         return ResponseEntity.ok(flights);
     }
 
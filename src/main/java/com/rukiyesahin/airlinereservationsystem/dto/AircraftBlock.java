@@ -0,0 +1,12 @@
+package com.rukiyesahin.airlinereservationsystem.dto;
+
+import java.time.LocalDateTime;
+
+// Time an aircraft is committed to one flight, from departure to arrival; filled by a JPQL
+// constructor expression when the rotation index is loaded
+public record AircraftBlock(Long flightId,
+                            String flightNumber,
+                            Long aircraftId,
+                            LocalDateTime departureTime,
+                            LocalDateTime arrivalTime) {
+}
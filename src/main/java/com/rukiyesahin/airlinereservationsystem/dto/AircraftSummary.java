@@ -0,0 +1,17 @@
+package com.rukiyesahin.airlinereservationsystem.dto;
+
+import com.rukiyesahin.airlinereservationsystem.entity.Aircraft;
+
+import java.time.LocalDateTime;
+
+// Read-only view of an aircraft for listings, filled by a JPQL constructor expression
+public record AircraftSummary(Long id,
+                              String registration,
+                              String type,
+                              String manufacturer,
+                              String model,
+                              Integer totalSeats,
+                              Integer yearOfManufacture,
+                              Aircraft.AircraftStatus status,
+                              LocalDateTime nextMaintenance) {
+}
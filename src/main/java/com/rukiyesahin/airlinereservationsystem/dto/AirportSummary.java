@@ -0,0 +1,14 @@
+package com.rukiyesahin.airlinereservationsystem.dto;
+
+// Read-only view of an airport for listings, filled by a JPQL constructor expression
+public record AirportSummary(Long id,
+                             String code,
+                             String name,
+                             String city,
+                             String country,
+                             String timezone,
+                             Double latitude,
+                             Double longitude,
+                             boolean international,
+                             boolean majorHub) {
+}
@@ -0,0 +1,52 @@
+package com.rukiyesahin.airlinereservationsystem.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.rukiyesahin.airlinereservationsystem.entity.Flight;
+
+import java.time.LocalDateTime;
+
+// Change to a flight pushed to /api/flights/events subscribers. Seat changes only carry the
+// route and seat count, so fields that were not read for them are left out of the JSON.
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record FlightEvent(Type type,
+                          Long flightId,
+                          String flightNumber,
+                          String departureCode,
+                          String arrivalCode,
+                          Flight.FlightStatus status,
+                          LocalDateTime departureTime,
+                          LocalDateTime arrivalTime,
+                          String gate,
+                          String terminal,
+                          Integer availableSeats,
+                          LocalDateTime occurredAt) {
+
+    public enum Type {
+        CREATED, UPDATED, DELAYED, CANCELLED, SEATS_CHANGED, STATUS_CHANGED
+    }
+
+    // Snapshot of a flight whose route airports are already loaded
+    public static FlightEvent of(Type type, Flight flight) {
+        return of(type, flight, flight.getDepartureAirport().getCode(), flight.getArrivalAirport().getCode());
+    }
+
+    // Snapshot of a flight with its airport codes resolved by the caller
+    public static FlightEvent of(Type type, Flight flight, String departureCode, String arrivalCode) {
+        return new FlightEvent(type, flight.getId(), flight.getFlightNumber(), departureCode, arrivalCode,
+                flight.getStatus(), flight.getDepartureTime(), flight.getArrivalTime(),
+                flight.getGate(), flight.getTerminal(), flight.getAvailableSeats(), LocalDateTime.now());
+    }
+
+    public static FlightEvent seatsChanged(Long flightId, String flightNumber, String departureCode,
+                                           String arrivalCode, int availableSeats) {
+        return new FlightEvent(Type.SEATS_CHANGED, flightId, flightNumber, departureCode, arrivalCode,
+                null, null, null, null, null, availableSeats, LocalDateTime.now());
+    }
+
+    // A flight moved on by the status scheduler (boarding, departed, arrived)
+    public static FlightEvent statusChanged(FlightTimes flight, Flight.FlightStatus status) {
+        return new FlightEvent(Type.STATUS_CHANGED, flight.id(), flight.flightNumber(), flight.departureCode(),
+                flight.arrivalCode(), status, flight.departureTime(), flight.arrivalTime(), null, null, null,
+                LocalDateTime.now());
+    }
+}
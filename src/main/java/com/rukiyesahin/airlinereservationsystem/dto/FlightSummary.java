@@ -0,0 +1,32 @@
+package com.rukiyesahin.airlinereservationsystem.dto;
+
+import com.rukiyesahin.airlinereservationsystem.entity.Flight;
+import com.rukiyesahin.airlinereservationsystem.money.Money;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+
+// Read-only view of a flight for search results, filled by a JPQL constructor expression
+public record FlightSummary(Long id,
+                            String flightNumber,
+                            String departureCode,
+                            String departureCity,
+                            String arrivalCode,
+                            String arrivalCity,
+                            LocalDateTime departureTime,
+                            LocalDateTime arrivalTime,
+                            Flight.FlightStatus status,
+                            Integer availableSeats,
+                            Money basePrice,
+                            Money businessClassPrice,
+                            Money firstClassPrice,
+                            String gate,
+                            String terminal,
+                            String aircraftRegistration) {
+
+    // Cheapest economy fare first, then earliest departure; compares minor units, so sorting allocates nothing per row
+    public static final Comparator<FlightSummary> BY_FARE = Comparator
+            .comparingLong((FlightSummary summary) -> summary.basePrice().minorUnits())
+            .thenComparing(FlightSummary::departureTime)
+            .thenComparing(FlightSummary::id);
+}
@@ -0,0 +1,16 @@
+package com.rukiyesahin.airlinereservationsystem.dto;
+
+import com.rukiyesahin.airlinereservationsystem.entity.Flight;
+
+import java.time.LocalDateTime;
+
+// Route, status and times of a flight, all the status scheduler keeps per flight; filled by a
+// JPQL constructor expression so a reload does not hydrate whole entities
+public record FlightTimes(Long id,
+                          String flightNumber,
+                          String departureCode,
+                          String arrivalCode,
+                          Flight.FlightStatus status,
+                          LocalDateTime departureTime,
+                          LocalDateTime arrivalTime) {
+}
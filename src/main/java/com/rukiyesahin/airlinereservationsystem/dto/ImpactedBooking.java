@@ -0,0 +1,12 @@
+package com.rukiyesahin.airlinereservationsystem.dto;
+
+import com.rukiyesahin.airlinereservationsystem.entity.Booking;
+
+// Live booking on a flight whose times changed, filled by a JPQL constructor expression
+public record ImpactedBooking(String bookingReference,
+                              Long flightId,
+                              String flightNumber,
+                              String userEmail,
+                              Integer numberOfPassengers,
+                              Booking.BookingStatus status) {
+}
@@ -0,0 +1,12 @@
+package com.rukiyesahin.airlinereservationsystem.dto;
+
+import java.time.LocalDateTime;
+
+// Proposed hangar visit for one aircraft; late when it cannot start before the maintenance is due
+public record MaintenanceSlot(Long aircraftId,
+                              String registration,
+                              LocalDateTime due,
+                              LocalDateTime start,
+                              LocalDateTime end,
+                              boolean late) {
+}
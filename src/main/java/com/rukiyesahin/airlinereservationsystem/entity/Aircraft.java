@@ -1,5 +1,6 @@
 package com.rukiyesahin.airlinereservationsystem.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -10,11 +11,14 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "aircraft")
+@Table(name = "aircraft", indexes = {
+        @Index(name = "idx_aircraft_status_id", columnList = "status, id")
+})
 public class Aircraft {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "aircraft_seq")
+    @SequenceGenerator(name = "aircraft_seq", sequenceName = "aircraft_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Aircraft registration is required")
@@ -52,6 +56,7 @@ public class Aircraft {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
+    @JsonIgnore
     @OneToMany(mappedBy = "aircraft", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Flight> flights = new ArrayList<>();
 
@@ -1,5 +1,6 @@
 package com.rukiyesahin.airlinereservationsystem.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
@@ -9,11 +10,17 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "airports")
+@Table(name = "airports", indexes = {
+        @Index(name = "idx_airports_international", columnList = "international"),
+        @Index(name = "idx_airports_major_hub", columnList = "major_hub"),
+        @Index(name = "idx_airports_country_id", columnList = "country, id"),
+        @Index(name = "idx_airports_city_id", columnList = "city, id")
+})
 public class Airport {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "airports_seq")
+    @SequenceGenerator(name = "airports_seq", sequenceName = "airports_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Airport code is required")
@@ -34,13 +41,29 @@ public class Airport {
     private Double latitude;
     private Double longitude;
 
+    // Classification, derived from country on save so filters can be pushed into queries
+    @Column(name = "international", nullable = false)
+    private boolean international;
+
+    // Flight counters are only changed through AirportRepository bulk updates
+    @Column(name = "departure_flight_count", nullable = false, updatable = false)
+    private long departureFlightCount;
+
+    @Column(name = "arrival_flight_count", nullable = false, updatable = false)
+    private long arrivalFlightCount;
+
+    @Column(name = "major_hub", nullable = false, updatable = false)
+    private boolean majorHub;
+
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
-    // Relationships
+    // Relationships (not serialized, cached airports are detached from the session)
+    @JsonIgnore
     @OneToMany(mappedBy = "departureAirport", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Flight> departureFlights = new ArrayList<>();
 
+    @JsonIgnore
     @OneToMany(mappedBy = "arrivalAirport", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Flight> arrivalFlights = new ArrayList<>();
 
@@ -59,11 +82,13 @@ public class Airport {
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
+        international = isInternational();
     }
 
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        international = isInternational();
     }
 
     // Getters and Setters
@@ -91,6 +116,12 @@ public class Airport {
     public Double getLongitude() { return longitude; }
     public void setLongitude(Double longitude) { this.longitude = longitude; }
 
+    public long getDepartureFlightCount() { return departureFlightCount; }
+    public void setDepartureFlightCount(long departureFlightCount) { this.departureFlightCount = departureFlightCount; }
+
+    public long getArrivalFlightCount() { return arrivalFlightCount; }
+    public void setArrivalFlightCount(long arrivalFlightCount) { this.arrivalFlightCount = arrivalFlightCount; }
+
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 
@@ -122,9 +153,8 @@ public class Airport {
     }
 
     public boolean isMajorHub() {
-        // Example logic: more than 100 departures or arrivals
-        return (departureFlights != null && departureFlights.size() > 100)
-                || (arrivalFlights != null && arrivalFlights.size() > 100);
+        // Maintained from the flight counters: more than the hub threshold (100) departures or arrivals
+        return majorHub;
     }
 
     public boolean hasCustoms() {
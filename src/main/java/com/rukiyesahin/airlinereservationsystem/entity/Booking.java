@@ -1,5 +1,6 @@
 package com.rukiyesahin.airlinereservationsystem.entity;
 
+import com.rukiyesahin.airlinereservationsystem.id.EntityIds;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -16,7 +17,8 @@ import java.util.List;
 public class Booking {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     private Long id;
 
     @Column(unique = true, nullable = false)
@@ -157,7 +159,7 @@ public class Booking {
 
     // Business methods
     private String generateBookingReference() {
-        return "BK" + System.currentTimeMillis() + String.format("%03d", (int)(Math.random() * 1000));
+        return EntityIds.bookingReference();
     }
 
     public boolean isConfirmed() {
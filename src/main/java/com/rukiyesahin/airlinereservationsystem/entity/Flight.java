@@ -1,5 +1,8 @@
 package com.rukiyesahin.airlinereservationsystem.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.rukiyesahin.airlinereservationsystem.money.Money;
+import com.rukiyesahin.airlinereservationsystem.money.MoneyConverter;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -12,11 +15,23 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "flights")
+@NamedEntityGraph(name = Flight.WITH_ROUTE, attributeNodes = {
+        @NamedAttributeNode("departureAirport"),
+        @NamedAttributeNode("arrivalAirport"),
+        @NamedAttributeNode("aircraft")
+})
+@Table(name = "flights", indexes = {
+        @Index(name = "idx_flights_departure_time_id", columnList = "departure_time, id"),
+        @Index(name = "idx_flights_status_departure_time_id", columnList = "status, departure_time, id")
+})
 public class Flight {
 
+    // Fetch plan for anything that reads the route or serialises the flight
+    public static final String WITH_ROUTE = "Flight.withRoute";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "flights_seq")
+    @SequenceGenerator(name = "flights_seq", sequenceName = "flights_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Flight number is required")
@@ -50,17 +65,23 @@ public class Flight {
     @Positive(message = "Available seats must be positive")
     private Integer availableSeats;
 
+    // Prices are held as Money and stored in the same decimal columns as before
     @NotNull(message = "Base price is required")
-    @Positive(message = "Base price must be positive")
-    private BigDecimal basePrice;
+    @Convert(converter = MoneyConverter.class)
+    private Money basePrice;
+
+    @Convert(converter = MoneyConverter.class)
+    private Money businessClassPrice;
+
+    @Convert(converter = MoneyConverter.class)
+    private Money firstClassPrice;
 
-    private BigDecimal businessClassPrice;
-    private BigDecimal firstClassPrice;
     private String gate;
     private String terminal;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
+    @JsonIgnore
     @OneToMany(mappedBy = "flight", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Booking> bookings = new ArrayList<>();
 
@@ -90,7 +111,7 @@ public class Flight {
         this.arrivalTime = arrivalTime;
         this.totalSeats = totalSeats;
         this.availableSeats = totalSeats;
-        this.basePrice = basePrice;
+        this.basePrice = toMoney(basePrice);
     }
 
     // Getters and Setters
@@ -124,14 +145,15 @@ public class Flight {
     public Integer getAvailableSeats() { return availableSeats; }
     public void setAvailableSeats(Integer availableSeats) { this.availableSeats = availableSeats; }
 
-    public BigDecimal getBasePrice() { return basePrice; }
-    public void setBasePrice(BigDecimal basePrice) { this.basePrice = basePrice; }
+    @Positive(message = "Base price must be positive")
+    public BigDecimal getBasePrice() { return toBigDecimal(basePrice); }
+    public void setBasePrice(BigDecimal basePrice) { this.basePrice = toMoney(basePrice); }
 
-    public BigDecimal getBusinessClassPrice() { return businessClassPrice; }
-    public void setBusinessClassPrice(BigDecimal businessClassPrice) { this.businessClassPrice = businessClassPrice; }
+    public BigDecimal getBusinessClassPrice() { return toBigDecimal(businessClassPrice); }
+    public void setBusinessClassPrice(BigDecimal businessClassPrice) { this.businessClassPrice = toMoney(businessClassPrice); }
 
-    public BigDecimal getFirstClassPrice() { return firstClassPrice; }
-    public void setFirstClassPrice(BigDecimal firstClassPrice) { this.firstClassPrice = firstClassPrice; }
+    public BigDecimal getFirstClassPrice() { return toBigDecimal(firstClassPrice); }
+    public void setFirstClassPrice(BigDecimal firstClassPrice) { this.firstClassPrice = toMoney(firstClassPrice); }
 
     public String getGate() { return gate; }
     public void setGate(String gate) { this.gate = gate; }
@@ -191,10 +213,20 @@ public class Flight {
     }
 
     public BigDecimal getPriceForClass(SeatClass seatClass) {
+        return getFareForClass(seatClass).toBigDecimal();
+    }
+
+    public Money getFareForClass(SeatClass seatClass) {
+        return new Money(getFareMinorUnits(seatClass), basePrice.currency());
+    }
+
+    // Fare as a plain long, so pricing loops allocate nothing; a class without a stored price
+    // costs a multiple of the base price
+    public long getFareMinorUnits(SeatClass seatClass) {
         return switch (seatClass) {
-            case ECONOMY -> basePrice;
-            case BUSINESS -> businessClassPrice != null ? businessClassPrice : basePrice.multiply(BigDecimal.valueOf(2.5));
-            case FIRST -> firstClassPrice != null ? firstClassPrice : basePrice.multiply(BigDecimal.valueOf(4.0));
+            case ECONOMY -> basePrice.minorUnits();
+            case BUSINESS -> businessClassPrice != null ? businessClassPrice.minorUnits() : Money.percentOf(basePrice.minorUnits(), 250);
+            case FIRST -> firstClassPrice != null ? firstClassPrice.minorUnits() : Money.percentOf(basePrice.minorUnits(), 400);
         };
     }
 
@@ -222,6 +254,14 @@ public class Flight {
         return "Unknown Route";
     }
 
+    private static Money toMoney(BigDecimal amount) {
+        return amount == null ? null : Money.of(amount);
+    }
+
+    private static BigDecimal toBigDecimal(Money money) {
+        return money == null ? null : money.toBigDecimal();
+    }
+
     public enum FlightStatus {
         SCHEDULED, BOARDING, DEPARTED, ARRIVED, CANCELLED, DELAYED, DIVERTED
     }
@@ -14,7 +14,8 @@ import java.time.LocalDateTime;
 public class Passenger {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "passengers_seq")
+    @SequenceGenerator(name = "passengers_seq", sequenceName = "passengers_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "First name is required")
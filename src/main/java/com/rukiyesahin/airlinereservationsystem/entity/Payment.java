@@ -1,5 +1,6 @@
 package com.rukiyesahin.airlinereservationsystem.entity;
 
+import com.rukiyesahin.airlinereservationsystem.id.EntityIds;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
@@ -12,7 +13,8 @@ import java.time.LocalDateTime;
 public class Payment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payments_seq")
+    @SequenceGenerator(name = "payments_seq", sequenceName = "payments_seq", allocationSize = 50)
     private Long id;
 
     @Column(unique = true, nullable = false)
@@ -109,7 +111,7 @@ public class Payment {
 
     // Business methods
     private String generateTransactionId() {
-        return "TXN" + System.currentTimeMillis() + String.format("%04d", (int)(Math.random() * 10000));
+        return EntityIds.transactionId();
     }
 
     public boolean isCompleted() {
@@ -0,0 +1,7 @@
+package com.rukiyesahin.airlinereservationsystem.exception;
+
+public class AircraftScheduleConflictException extends RuntimeException {
+    public AircraftScheduleConflictException(String message) {
+        super(message);
+    }
+}
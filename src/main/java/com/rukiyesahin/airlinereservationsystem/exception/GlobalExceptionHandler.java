@@ -1,7 +1,13 @@
 package com.rukiyesahin.airlinereservationsystem.exception;
 
+import com.rukiyesahin.airlinereservationsystem.service.AirlineMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -14,9 +20,12 @@ import java.util.Map;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    @Autowired
+    private AirlineMetrics airlineMetrics;
 
     @ExceptionHandler(DuplicateUserException.class)
     public ResponseEntity<ErrorResponse> handleDuplicateUserException(DuplicateUserException ex) {
+        airlineMetrics.exceptionHandled(ex);
         ErrorResponse error = new ErrorResponse(
                 HttpStatus.CONFLICT.value(),
                 "Duplicate User",
@@ -28,6 +37,7 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(InvalidUserDataException.class)
     public ResponseEntity<ErrorResponse> handleInvalidUserDataException(InvalidUserDataException ex) {
+        airlineMetrics.exceptionHandled(ex);
         ErrorResponse error = new ErrorResponse(
                 HttpStatus.BAD_REQUEST.value(),
                 "Invalid User Data",
@@ -39,6 +49,7 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(FlightNotFoundException.class)
     public ResponseEntity<ErrorResponse> handleFlightNotFoundException(FlightNotFoundException ex) {
+        airlineMetrics.exceptionHandled(ex);
         ErrorResponse error = new ErrorResponse(
                 HttpStatus.NOT_FOUND.value(),
                 "Flight Not Found",
@@ -50,6 +61,7 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(InvalidFlightDataException.class)
     public ResponseEntity<ErrorResponse> handleInvalidFlightDataException(InvalidFlightDataException ex) {
+        airlineMetrics.exceptionHandled(ex);
         ErrorResponse error = new ErrorResponse(
                 HttpStatus.BAD_REQUEST.value(),
                 "Invalid Flight Data",
@@ -61,6 +73,7 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(FlightNotAvailableException.class)
     public ResponseEntity<ErrorResponse> handleFlightNotAvailableException(FlightNotAvailableException ex) {
+        airlineMetrics.exceptionHandled(ex);
         ErrorResponse error = new ErrorResponse(
                 HttpStatus.BAD_REQUEST.value(),
                 "Flight Not Available",
@@ -70,8 +83,21 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(AircraftScheduleConflictException.class)
+    public ResponseEntity<ErrorResponse> handleAircraftScheduleConflictException(AircraftScheduleConflictException ex) {
+        airlineMetrics.exceptionHandled(ex);
+        ErrorResponse error = new ErrorResponse(
+                HttpStatus.CONFLICT.value(),
+                "Aircraft Schedule Conflict",
+                ex.getMessage(),
+                LocalDateTime.now()
+        );
+        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(AircraftNotAvailableException.class)
     public ResponseEntity<ErrorResponse> handleAircraftNotAvailableException(AircraftNotAvailableException ex) {
+        airlineMetrics.exceptionHandled(ex);
         ErrorResponse error = new ErrorResponse(
                 HttpStatus.BAD_REQUEST.value(),
                 "Aircraft Not Available",
@@ -81,8 +107,91 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(InvalidAirportDataException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidAirportDataException(InvalidAirportDataException ex) {
+        airlineMetrics.exceptionHandled(ex);
+        ErrorResponse error = new ErrorResponse(
+                HttpStatus.BAD_REQUEST.value(),
+                "Invalid Airport Data",
+                ex.getMessage(),
+                LocalDateTime.now()
+        );
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(InvalidAircraftDataException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidAircraftDataException(InvalidAircraftDataException ex) {
+        airlineMetrics.exceptionHandled(ex);
+        ErrorResponse error = new ErrorResponse(
+                HttpStatus.BAD_REQUEST.value(),
+                "Invalid Aircraft Data",
+                ex.getMessage(),
+                LocalDateTime.now()
+        );
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(InvalidPageTokenException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidPageTokenException(InvalidPageTokenException ex) {
+        airlineMetrics.exceptionHandled(ex);
+        ErrorResponse error = new ErrorResponse(
+                HttpStatus.BAD_REQUEST.value(),
+                "Invalid Page Token",
+                ex.getMessage(),
+                LocalDateTime.now()
+        );
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
+    // No database connection within the bulkhead or pool timeout; the client should retry later
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class})
+    public ResponseEntity<ErrorResponse> handleDatabaseUnavailableException(Exception ex) {
+        airlineMetrics.exceptionHandled(ex);
+        ErrorResponse error = new ErrorResponse(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Service Unavailable",
+                "The database is busy, please retry",
+                LocalDateTime.now()
+        );
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(error);
+    }
+
+    // Every flight event stream slot is taken; the client should reconnect later
+    @ExceptionHandler(SubscriberLimitExceededException.class)
+    public ResponseEntity<ErrorResponse> handleSubscriberLimitExceededException(SubscriberLimitExceededException ex) {
+        airlineMetrics.exceptionHandled(ex);
+        ErrorResponse error = new ErrorResponse(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Service Unavailable",
+                ex.getMessage(),
+                LocalDateTime.now()
+        );
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(error);
+    }
+
+    // Event stream clients cannot read a JSON error body, so the message is sent as an SSE comment
+    @ExceptionHandler(value = {SubscriberLimitExceededException.class, FlightNotFoundException.class},
+            produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<String> handleEventStreamException(RuntimeException ex) {
+        airlineMetrics.exceptionHandled(ex);
+        if (ex instanceof SubscriberLimitExceededException) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .contentType(MediaType.TEXT_EVENT_STREAM)
+                    .body(": " + ex.getMessage() + "\n\n");
+        }
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .body(": " + ex.getMessage() + "\n\n");
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ValidationErrorResponse> handleValidationExceptions(MethodArgumentNotValidException ex) {
+        airlineMetrics.exceptionHandled(ex);
         Map<String, String> errors = new HashMap<>();
         ex.getBindingResult().getAllErrors().forEach((error) -> {
             String fieldName = ((FieldError) error).getField();
@@ -102,6 +211,7 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGenericException(Exception ex) {
+        airlineMetrics.exceptionHandled(ex);
         ErrorResponse error = new ErrorResponse(
                 HttpStatus.INTERNAL_SERVER_ERROR.value(),
                 "Internal Server Error",
@@ -0,0 +1,11 @@
+package com.rukiyesahin.airlinereservationsystem.exception;
+
+public class InvalidAircraftDataException extends RuntimeException {
+    public InvalidAircraftDataException(String message) {
+        super(message);
+    }
+
+    public InvalidAircraftDataException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
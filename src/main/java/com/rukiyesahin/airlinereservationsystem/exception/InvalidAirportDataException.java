@@ -0,0 +1,11 @@
+package com.rukiyesahin.airlinereservationsystem.exception;
+
+public class InvalidAirportDataException extends RuntimeException {
+    public InvalidAirportDataException(String message) {
+        super(message);
+    }
+
+    public InvalidAirportDataException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
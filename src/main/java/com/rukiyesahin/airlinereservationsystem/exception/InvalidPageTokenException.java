@@ -0,0 +1,11 @@
+package com.rukiyesahin.airlinereservationsystem.exception;
+
+public class InvalidPageTokenException extends RuntimeException {
+    public InvalidPageTokenException(String message) {
+        super(message);
+    }
+
+    public InvalidPageTokenException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
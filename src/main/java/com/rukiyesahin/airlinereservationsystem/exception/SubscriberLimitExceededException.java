@@ -0,0 +1,7 @@
+package com.rukiyesahin.airlinereservationsystem.exception;
+
+public class SubscriberLimitExceededException extends RuntimeException {
+    public SubscriberLimitExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,25 @@
+package com.rukiyesahin.airlinereservationsystem.id;
+
+// Static access to the id generator for entity callbacks, which are not Spring beans.
+// IdGeneratorConfig installs the configured generator at startup; until then node 0 is used.
+public final class EntityIds {
+
+    private static volatile IdGenerator generator = new SnowflakeIdGenerator(0);
+
+    private EntityIds() {
+    }
+
+    public static void use(IdGenerator idGenerator) {
+        generator = idGenerator;
+    }
+
+    // BK followed by 13 base32 characters
+    public static String bookingReference() {
+        return Locators.encode("BK", generator.nextId());
+    }
+
+    // TXN followed by 13 base32 characters
+    public static String transactionId() {
+        return Locators.encode("TXN", generator.nextId());
+    }
+}
@@ -0,0 +1,7 @@
+package com.rukiyesahin.airlinereservationsystem.id;
+
+// Source of unique 64-bit ids; EntityIds turns them into booking references and transaction ids
+public interface IdGenerator {
+
+    long nextId();
+}
@@ -0,0 +1,17 @@
+package com.rukiyesahin.airlinereservationsystem.id;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Every running instance needs its own airline.id.node-id (0-1023) for ids to stay unique
+@Configuration
+public class IdGeneratorConfig {
+
+    @Bean
+    public IdGenerator idGenerator(@Value("${airline.id.node-id:0}") int nodeId) {
+        IdGenerator idGenerator = new SnowflakeIdGenerator(nodeId);
+        EntityIds.use(idGenerator);
+        return idGenerator;
+    }
+}
@@ -0,0 +1,27 @@
+package com.rukiyesahin.airlinereservationsystem.id;
+
+// Crockford base32 encoding of ids for references people read out or type in: no I, L, O or U,
+// so there is nothing to confuse with 1 or 0. The fixed width keeps string order the same as
+// id order.
+public final class Locators {
+
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    // 63 bits of a non-negative long in 5-bit digits
+    public static final int LENGTH = 13;
+
+    private Locators() {
+    }
+
+    public static String encode(String prefix, long id) {
+        if (id < 0) {
+            throw new IllegalArgumentException("Id must not be negative: " + id);
+        }
+        char[] chars = new char[prefix.length() + LENGTH];
+        prefix.getChars(0, prefix.length(), chars, 0);
+        for (int i = chars.length - 1; i >= prefix.length(); i--) {
+            chars[i] = ALPHABET[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
+    }
+}
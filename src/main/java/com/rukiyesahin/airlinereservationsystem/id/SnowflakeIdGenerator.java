@@ -0,0 +1,49 @@
+package com.rukiyesahin.airlinereservationsystem.id;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// Snowflake-style ids: 41 bits of milliseconds since 2024-01-01, 10 bits of node id and a
+// 12-bit sequence. The time and sequence share one AtomicLong advanced with compare-and-set,
+// so callers never block. If the sequence runs out within a millisecond, or the clock steps
+// back, the generator keeps counting ahead of the clock instead of waiting, so ids from one
+// node are always increasing and ids from different nodes never collide.
+public class SnowflakeIdGenerator implements IdGenerator {
+
+    public static final long EPOCH_MILLIS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    public static final int NODE_BITS = 10;
+    public static final int SEQUENCE_BITS = 12;
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    private final long node;
+    private final LongSupplier clock;
+    // Milliseconds since the epoch shifted left by SEQUENCE_BITS, plus the sequence
+    private final AtomicLong lastTimeAndSequence = new AtomicLong();
+
+    public SnowflakeIdGenerator(int nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    public SnowflakeIdGenerator(int nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID + " but was " + nodeId);
+        }
+        this.node = (long) nodeId << SEQUENCE_BITS;
+        this.clock = clock;
+    }
+
+    @Override
+    public long nextId() {
+        long now = (clock.getAsLong() - EPOCH_MILLIS) << SEQUENCE_BITS;
+        long current;
+        long next;
+        do {
+            current = lastTimeAndSequence.get();
+            next = Math.max(current + 1, now);
+        } while (!lastTimeAndSequence.compareAndSet(current, next));
+        long millis = next >>> SEQUENCE_BITS;
+        long sequence = next & ((1L << SEQUENCE_BITS) - 1);
+        return millis << (NODE_BITS + SEQUENCE_BITS) | node | sequence;
+    }
+}
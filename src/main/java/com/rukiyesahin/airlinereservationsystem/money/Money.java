@@ -0,0 +1,94 @@
+package com.rukiyesahin.airlinereservationsystem.money;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Objects;
+
+// An amount as a whole number of minor units (cents) in one ISO 4217 currency. Fares are
+// compared, sorted and multiplied as longs, so pricing a flight needs no BigDecimal arithmetic;
+// the BigDecimal form is only made at the edges, for JSON and for the database column.
+public record Money(long minorUnits, String currency) implements Comparable<Money> {
+
+    // Payments default to USD too; the price columns do not store a currency
+    public static final String DEFAULT_CURRENCY = "USD";
+    public static final int MINOR_DIGITS = 2;
+
+    public Money {
+        Objects.requireNonNull(currency, "currency");
+    }
+
+    public static Money of(BigDecimal amount) {
+        return of(amount, DEFAULT_CURRENCY);
+    }
+
+    // Amounts with more than two decimals are rounded half-even, as the column would store them
+    public static Money of(BigDecimal amount, String currency) {
+        return of(amount, currency, RoundingMode.HALF_EVEN);
+    }
+
+    // For query bounds, which must not round past the caller's amount: FLOOR for a maximum, CEILING for a minimum
+    public static Money of(BigDecimal amount, RoundingMode rounding) {
+        return of(amount, DEFAULT_CURRENCY, rounding);
+    }
+
+    private static Money of(BigDecimal amount, String currency, RoundingMode rounding) {
+        return new Money(amount.setScale(MINOR_DIGITS, rounding).unscaledValue().longValueExact(), currency);
+    }
+
+    public static Money ofMinor(long minorUnits) {
+        return new Money(minorUnits, DEFAULT_CURRENCY);
+    }
+
+    public Money plus(Money other) {
+        checkCurrency(other);
+        return new Money(Math.addExact(minorUnits, other.minorUnits), currency);
+    }
+
+    public Money times(long factor) {
+        return new Money(Math.multiplyExact(minorUnits, factor), currency);
+    }
+
+    public Money timesPercent(long percent) {
+        return new Money(percentOf(minorUnits, percent), currency);
+    }
+
+    // minorUnits * percent / 100, rounded half-even to a whole minor unit
+    public static long percentOf(long minorUnits, long percent) {
+        long product = Math.multiplyExact(minorUnits, percent);
+        long quotient = Math.floorDiv(product, 100);
+        long remainder = Math.floorMod(product, 100);
+        if (remainder > 50 || (remainder == 50 && (quotient & 1) == 1)) {
+            quotient++;
+        }
+        return quotient;
+    }
+
+    public boolean isPositive() {
+        return minorUnits > 0;
+    }
+
+    // Serialised as a plain number, so JSON keeps the shape it had when prices were BigDecimal
+    @JsonValue
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, MINOR_DIGITS);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        checkCurrency(other);
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public String toString() {
+        return currency + " " + toBigDecimal().toPlainString();
+    }
+
+    private void checkCurrency(Money other) {
+        if (!currency.equals(other.currency)) {
+            throw new IllegalArgumentException("Currency mismatch: " + currency + " and " + other.currency);
+        }
+    }
+}
@@ -1,14 +1,20 @@
 package com.rukiyesahin.airlinereservationsystem.repository;
 
+import com.rukiyesahin.airlinereservationsystem.dto.AircraftSummary;
 import com.rukiyesahin.airlinereservationsystem.entity.Aircraft;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface AircraftRepository extends JpaRepository<Aircraft, Long> {
@@ -66,4 +72,24 @@ public interface AircraftRepository extends JpaRepository<Aircraft, Long> {
 
     @Query("SELECT DISTINCT a.model FROM Aircraft a ORDER BY a.model")
     List<String> findAllModels();
-}
\ No newline at end of file
+
+    // Keyset pages ordered by id; fetch limit = page size + 1
+    @Query("SELECT new com.rukiyesahin.airlinereservationsystem.dto.AircraftSummary(a.id, a.registration, a.type, a.manufacturer, a.model, a.totalSeats, a.yearOfManufacture, a.status, a.nextMaintenance) FROM Aircraft a WHERE a.id > :afterId ORDER BY a.id LIMIT :limit")
+    List<AircraftSummary> findPageAfter(@Param("afterId") Long afterId, @Param("limit") int limit);
+
+    @Query("SELECT new com.rukiyesahin.airlinereservationsystem.dto.AircraftSummary(a.id, a.registration, a.type, a.manufacturer, a.model, a.totalSeats, a.yearOfManufacture, a.status, a.nextMaintenance) FROM Aircraft a WHERE a.status = :status AND a.id > :afterId ORDER BY a.id LIMIT :limit")
+    List<AircraftSummary> findPageByStatusAfter(@Param("status") Aircraft.AircraftStatus status,
+                                         @Param("afterId") Long afterId,
+                                         @Param("limit") int limit);
+
+    // Whole fleet for streaming export; rows are read in fetch-size chunks from an open cursor
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a FROM Aircraft a ORDER BY a.id")
+    Stream<Aircraft> streamAll();
+
+    // Aircraft with any of the given registrations
+    List<Aircraft> findByRegistrationIn(Collection<String> registrations);
+}
@@ -1,7 +1,9 @@
 package com.rukiyesahin.airlinereservationsystem.repository;
 
+import com.rukiyesahin.airlinereservationsystem.dto.AirportSummary;
 import com.rukiyesahin.airlinereservationsystem.entity.Airport;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -28,6 +30,10 @@ public interface AirportRepository extends JpaRepository<Airport, Long> {
     @Query("SELECT a FROM Airport a WHERE a.name LIKE %:searchTerm% OR a.city LIKE %:searchTerm%")
     List<Airport> findByNameOrCityContaining(@Param("searchTerm") String searchTerm);
 
+    // Search airports by name or city, only the summary columns
+    @Query("SELECT new com.rukiyesahin.airlinereservationsystem.dto.AirportSummary(a.id, a.code, a.name, a.city, a.country, a.timezone, a.latitude, a.longitude, a.international, a.majorHub) FROM Airport a WHERE a.name LIKE %:searchTerm% OR a.city LIKE %:searchTerm% ORDER BY a.code")
+    List<AirportSummary> findSummariesByNameOrCityContaining(@Param("searchTerm") String searchTerm);
+
     // Find all countries
     @Query("SELECT DISTINCT a.country FROM Airport a ORDER BY a.country")
     List<String> findAllCountries();
@@ -44,10 +50,37 @@ public interface AirportRepository extends JpaRepository<Airport, Long> {
     @Query("SELECT a FROM Airport a WHERE 1=0")
     List<Airport> findInactiveAirports();
 
-    // Find major hubs (placeholder - would need business logic)
-    @Query("SELECT a FROM Airport a")
+    // Find major hubs
+    @Query("SELECT a FROM Airport a WHERE a.majorHub = true")
     List<Airport> findMajorHubs();
 
+    // Find airports by persisted classification
+    List<Airport> findByInternationalTrue();
+
+    List<Airport> findByInternationalFalse();
+
+    List<Airport> findByMajorHubTrue();
+
+    List<Airport> findByMajorHubFalse();
+
+    // Maintain flight counters and hub flag when flights are added
+    @Modifying
+    @Query("UPDATE Airport a SET a.departureFlightCount = a.departureFlightCount + :delta, " +
+            "a.majorHub = CASE WHEN a.departureFlightCount + :delta > :threshold OR a.arrivalFlightCount > :threshold THEN true ELSE false END " +
+            "WHERE a.id = :id")
+    int adjustDepartureFlightCount(@Param("id") Long id, @Param("delta") long delta, @Param("threshold") long threshold);
+
+    @Modifying
+    @Query("UPDATE Airport a SET a.arrivalFlightCount = a.arrivalFlightCount + :delta, " +
+            "a.majorHub = CASE WHEN a.arrivalFlightCount + :delta > :threshold OR a.departureFlightCount > :threshold THEN true ELSE false END " +
+            "WHERE a.id = :id")
+    int adjustArrivalFlightCount(@Param("id") Long id, @Param("delta") long delta, @Param("threshold") long threshold);
+
+    // Re-derive the hub flag for every airport, e.g. after the threshold changed
+    @Modifying
+    @Query("UPDATE Airport a SET a.majorHub = CASE WHEN a.departureFlightCount > :threshold OR a.arrivalFlightCount > :threshold THEN true ELSE false END")
+    int recomputeMajorHubs(@Param("threshold") long threshold);
+
     // Count airports by country
     @Query("SELECT COUNT(a) FROM Airport a WHERE a.country = :country")
     long countAirportsByCountry(@Param("country") String country);
@@ -105,4 +138,20 @@ public interface AirportRepository extends JpaRepository<Airport, Long> {
     // Find airports by multiple countries
     @Query("SELECT a FROM Airport a WHERE a.country IN :countries")
     List<Airport> findByCountryIn(@Param("countries") List<String> countries);
-}
\ No newline at end of file
+
+    // Keyset pages ordered by id; fetch limit = page size + 1
+    @Query("SELECT new com.rukiyesahin.airlinereservationsystem.dto.AirportSummary(a.id, a.code, a.name, a.city, a.country, a.timezone, a.latitude, a.longitude, a.international, a.majorHub) FROM Airport a WHERE a.id > :afterId ORDER BY a.id LIMIT :limit")
+    List<AirportSummary> findPageAfter(@Param("afterId") Long afterId, @Param("limit") int limit);
+
+    // Keyset pages of airports in a country
+    @Query("SELECT new com.rukiyesahin.airlinereservationsystem.dto.AirportSummary(a.id, a.code, a.name, a.city, a.country, a.timezone, a.latitude, a.longitude, a.international, a.majorHub) FROM Airport a WHERE a.country = :country AND a.id > :afterId ORDER BY a.id LIMIT :limit")
+    List<AirportSummary> findPageByCountryAfter(@Param("country") String country,
+                                         @Param("afterId") Long afterId,
+                                         @Param("limit") int limit);
+
+    // Keyset pages of airports in a city
+    @Query("SELECT new com.rukiyesahin.airlinereservationsystem.dto.AirportSummary(a.id, a.code, a.name, a.city, a.country, a.timezone, a.latitude, a.longitude, a.international, a.majorHub) FROM Airport a WHERE a.city = :city AND a.id > :afterId ORDER BY a.id LIMIT :limit")
+    List<AirportSummary> findPageByCityAfter(@Param("city") String city,
+                                      @Param("afterId") Long afterId,
+                                      @Param("limit") int limit);
+}
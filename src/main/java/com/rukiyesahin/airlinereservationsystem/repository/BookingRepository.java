@@ -0,0 +1,22 @@
+package com.rukiyesahin.airlinereservationsystem.repository;
+
+import com.rukiyesahin.airlinereservationsystem.dto.ImpactedBooking;
+import com.rukiyesahin.airlinereservationsystem.entity.Booking;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BookingRepository extends JpaRepository<Booking, Long> {
+
+    Optional<Booking> findByBookingReference(String bookingReference);
+
+    // Pending and confirmed bookings on any of the flights
+    @Query("SELECT new com.rukiyesahin.airlinereservationsystem.dto.ImpactedBooking(b.bookingReference, b.flight.id, b.flight.flightNumber, b.userEmail, b.numberOfPassengers, b.status) FROM Booking b WHERE b.flight.id IN :flightIds AND b.status IN ('PENDING', 'CONFIRMED') ORDER BY b.flight.id, b.id")
+    List<ImpactedBooking> findImpactedBookings(@Param("flightIds") Collection<Long> flightIds);
+}
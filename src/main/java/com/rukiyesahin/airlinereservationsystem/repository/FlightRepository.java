@@ -1,101 +1,151 @@
 package com.rukiyesahin.airlinereservationsystem.repository;
 
+import com.rukiyesahin.airlinereservationsystem.dto.AircraftBlock;
+import com.rukiyesahin.airlinereservationsystem.dto.FlightSummary;
+import com.rukiyesahin.airlinereservationsystem.dto.FlightTimes;
 import com.rukiyesahin.airlinereservationsystem.entity.Flight;
 import com.rukiyesahin.airlinereservationsystem.entity.Airport;
+import com.rukiyesahin.airlinereservationsystem.money.Money;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface FlightRepository extends JpaRepository<Flight, Long> {
 
+    @Override
+    @EntityGraph(Flight.WITH_ROUTE)
+    Optional<Flight> findById(Long id);
+
+    @Override
+    @EntityGraph(Flight.WITH_ROUTE)
+    List<Flight> findAll();
+
+    @EntityGraph(Flight.WITH_ROUTE)
     Optional<Flight> findByFlightNumber(String flightNumber);
 
+    @EntityGraph(Flight.WITH_ROUTE)
     List<Flight> findByDepartureAirport(Airport departureAirport);
 
+    @EntityGraph(Flight.WITH_ROUTE)
     List<Flight> findByArrivalAirport(Airport arrivalAirport);
 
+    @EntityGraph(Flight.WITH_ROUTE)
     List<Flight> findByDepartureAirportAndArrivalAirport(Airport departureAirport, Airport arrivalAirport);
 
+    @EntityGraph(Flight.WITH_ROUTE)
     List<Flight> findByStatus(Flight.FlightStatus status);
 
+    @EntityGraph(Flight.WITH_ROUTE)
     List<Flight> findByDepartureTimeBetween(LocalDateTime startTime, LocalDateTime endTime);
 
+    @EntityGraph(Flight.WITH_ROUTE)
     List<Flight> findByArrivalTimeBetween(LocalDateTime startTime, LocalDateTime endTime);
 
+    @EntityGraph(Flight.WITH_ROUTE)
     List<Flight> findByAvailableSeatsGreaterThan(Integer minSeats);
 
-    List<Flight> findByBasePriceBetween(BigDecimal minPrice, BigDecimal maxPrice);
+    @EntityGraph(Flight.WITH_ROUTE)
+    List<Flight> findByBasePriceBetween(Money minPrice, Money maxPrice);
 
+    @EntityGraph(Flight.WITH_ROUTE)
     List<Flight> findByAircraftId(Long aircraftId);
 
+    // The aircraft's rotation from a point in time on, in the order it flies it
+    @EntityGraph(Flight.WITH_ROUTE)
+    List<Flight> findByAircraftIdAndDepartureTimeAfterOrderByDepartureTimeAscIdAsc(Long aircraftId, LocalDateTime after);
+
+    @EntityGraph(Flight.WITH_ROUTE)
     @Query("SELECT f FROM Flight f WHERE f.departureAirport = :departure AND f.arrivalAirport = :arrival AND f.departureTime >= :startDate AND f.departureTime <= :endDate AND f.status = 'SCHEDULED'")
     List<Flight> findAvailableFlights(@Param("departure") Airport departure,
                                       @Param("arrival") Airport arrival,
                                       @Param("startDate") LocalDateTime startDate,
                                       @Param("endDate") LocalDateTime endDate);
 
+    @EntityGraph(Flight.WITH_ROUTE)
     @Query("SELECT f FROM Flight f WHERE f.departureAirport.code = :departureCode AND f.arrivalAirport.code = :arrivalCode AND f.departureTime >= :startDate AND f.status = 'SCHEDULED' ORDER BY f.departureTime")
     List<Flight> findFlightsByRoute(@Param("departureCode") String departureCode,
                                     @Param("arrivalCode") String arrivalCode,
                                     @Param("startDate") LocalDateTime startDate);
 
+    @EntityGraph(Flight.WITH_ROUTE)
     @Query("SELECT f FROM Flight f WHERE f.departureTime >= :now AND f.availableSeats > 0 AND f.status = 'SCHEDULED' ORDER BY f.departureTime")
     List<Flight> findUpcomingAvailableFlights(@Param("now") LocalDateTime now);
 
+    @EntityGraph(Flight.WITH_ROUTE)
     @Query("SELECT f FROM Flight f WHERE f.departureTime >= :startDate AND f.departureTime <= :endDate AND f.status = 'SCHEDULED'")
     List<Flight> findScheduledFlightsInPeriod(@Param("startDate") LocalDateTime startDate,
                                               @Param("endDate") LocalDateTime endDate);
 
+    @EntityGraph(Flight.WITH_ROUTE)
     @Query("SELECT f FROM Flight f WHERE f.departureTime < :now AND f.status = 'SCHEDULED'")
     List<Flight> findOverdueFlights(@Param("now") LocalDateTime now);
 
+    @EntityGraph(Flight.WITH_ROUTE)
     @Query("SELECT f FROM Flight f WHERE f.availableSeats = 0 AND f.status = 'SCHEDULED'")
     List<Flight> findFullyBookedFlights();
 
+    @EntityGraph(Flight.WITH_ROUTE)
     @Query("SELECT f FROM Flight f WHERE f.availableSeats < 0")
     List<Flight> findOverbookedFlights();
 
+    @EntityGraph(Flight.WITH_ROUTE)
     @Query("SELECT f FROM Flight f WHERE f.departureTime >= :now AND f.departureTime <= :soon AND f.status = 'SCHEDULED'")
     List<Flight> findFlightsDepartingSoon(@Param("now") LocalDateTime now,
                                           @Param("soon") LocalDateTime soon);
 
+    @EntityGraph(Flight.WITH_ROUTE)
     @Query("SELECT f FROM Flight f WHERE f.basePrice <= :maxPrice AND f.availableSeats > 0 AND f.status = 'SCHEDULED' ORDER BY f.basePrice")
-    List<Flight> findAffordableFlights(@Param("maxPrice") BigDecimal maxPrice);
+    List<Flight> findAffordableFlights(@Param("maxPrice") Money maxPrice);
 
+    @EntityGraph(Flight.WITH_ROUTE)
     @Query("SELECT f FROM Flight f WHERE f.departureAirport = :airport OR f.arrivalAirport = :airport ORDER BY f.departureTime")
     List<Flight> findFlightsByAirport(@Param("airport") Airport airport);
 
+    @EntityGraph(Flight.WITH_ROUTE)
     @Query("SELECT f FROM Flight f WHERE f.departureTime >= :startDate AND f.departureTime <= :endDate AND f.status = :status")
     List<Flight> findFlightsByStatusAndPeriod(@Param("startDate") LocalDateTime startDate,
                                               @Param("endDate") LocalDateTime endDate,
                                               @Param("status") Flight.FlightStatus status);
 
+    @EntityGraph(Flight.WITH_ROUTE)
     @Query("SELECT f FROM Flight f WHERE f.availableSeats >= :minSeats AND f.availableSeats <= :maxSeats AND f.status = 'SCHEDULED'")
     List<Flight> findFlightsBySeatAvailability(@Param("minSeats") Integer minSeats,
                                                @Param("maxSeats") Integer maxSeats);
 
+    @EntityGraph(Flight.WITH_ROUTE)
     @Query("SELECT f FROM Flight f WHERE f.departureTime >= :now AND f.status = 'SCHEDULED' ORDER BY f.departureTime LIMIT :limit")
     List<Flight> findNextFlights(@Param("now") LocalDateTime now, @Param("limit") int limit);
 
+    @EntityGraph(Flight.WITH_ROUTE)
     @Query("SELECT f FROM Flight f WHERE f.departureAirport.country = :country OR f.arrivalAirport.country = :country")
     List<Flight> findFlightsByCountry(@Param("country") String country);
 
+    @EntityGraph(Flight.WITH_ROUTE)
     @Query("SELECT f FROM Flight f WHERE f.departureAirport.city = :city OR f.arrivalAirport.city = :city")
     List<Flight> findFlightsByCity(@Param("city") String city);
 
+    @EntityGraph(Flight.WITH_ROUTE)
     @Query("SELECT f FROM Flight f WHERE f.businessClassPrice IS NOT NULL AND f.businessClassPrice <= :maxPrice AND f.availableSeats > 0")
-    List<Flight> findBusinessClassFlights(@Param("maxPrice") BigDecimal maxPrice);
+    List<Flight> findBusinessClassFlights(@Param("maxPrice") Money maxPrice);
 
+    @EntityGraph(Flight.WITH_ROUTE)
     @Query("SELECT f FROM Flight f WHERE f.firstClassPrice IS NOT NULL AND f.firstClassPrice <= :maxPrice AND f.availableSeats > 0")
-    List<Flight> findFirstClassFlights(@Param("maxPrice") BigDecimal maxPrice);
+    List<Flight> findFirstClassFlights(@Param("maxPrice") Money maxPrice);
 
+    @EntityGraph(Flight.WITH_ROUTE)
     @Query("SELECT f FROM Flight f WHERE f.departureTime >= :startDate AND f.departureTime <= :endDate AND f.availableSeats > 0 ORDER BY f.basePrice")
     List<Flight> findAvailableFlightsByPriceRange(@Param("startDate") LocalDateTime startDate,
                                                   @Param("endDate") LocalDateTime endDate);
@@ -104,16 +154,110 @@ public interface FlightRepository extends JpaRepository<Flight, Long> {
     long countScheduledFlightsInPeriod(@Param("startDate") LocalDateTime startDate,
                                        @Param("endDate") LocalDateTime endDate);
 
+    @EntityGraph(Flight.WITH_ROUTE)
     @Query("SELECT f FROM Flight f WHERE f.departureTime >= :now AND f.status = 'SCHEDULED' AND f.availableSeats > 0 ORDER BY f.departureTime")
     List<Flight> findUpcomingAvailableFlightsOrdered(@Param("now") LocalDateTime now);
 
+    @EntityGraph(Flight.WITH_ROUTE)
     @Query("SELECT f FROM Flight f WHERE f.departureAirport.code = :departureCode AND f.arrivalAirport.code = :arrivalCode AND f.departureTime >= :startDate AND f.departureTime <= :endDate AND f.availableSeats > 0 ORDER BY f.departureTime")
     List<Flight> findAvailableFlightsByRouteAndDate(@Param("departureCode") String departureCode,
                                                     @Param("arrivalCode") String arrivalCode,
                                                     @Param("startDate") LocalDateTime startDate,
                                                     @Param("endDate") LocalDateTime endDate);
 
+    @EntityGraph(Flight.WITH_ROUTE)
     @Query("SELECT f FROM Flight f WHERE f.departureTime >= :now AND f.status = 'SCHEDULED' AND f.availableSeats > 0 AND f.basePrice <= :maxPrice ORDER BY f.basePrice")
     List<Flight> findAffordableUpcomingFlights(@Param("now") LocalDateTime now,
-                                               @Param("maxPrice") BigDecimal maxPrice);
-}
\ No newline at end of file
+                                               @Param("maxPrice") Money maxPrice);
+
+    // Search projections: one query returning only the columns a search result shows
+    @Query("SELECT new com.rukiyesahin.airlinereservationsystem.dto.FlightSummary(f.id, f.flightNumber, d.code, d.city, a.code, a.city, f.departureTime, f.arrivalTime, f.status, f.availableSeats, f.basePrice, f.businessClassPrice, f.firstClassPrice, f.gate, f.terminal, ac.registration) FROM Flight f JOIN f.departureAirport d JOIN f.arrivalAirport a LEFT JOIN f.aircraft ac WHERE d.id = :departureId AND a.id = :arrivalId AND f.departureTime >= :startDate AND f.departureTime <= :endDate AND f.status = 'SCHEDULED' ORDER BY f.departureTime, f.id")
+    List<FlightSummary> findAvailableFlightSummaries(@Param("departureId") Long departureId,
+                                                     @Param("arrivalId") Long arrivalId,
+                                                     @Param("startDate") LocalDateTime startDate,
+                                                     @Param("endDate") LocalDateTime endDate);
+
+    @Query("SELECT new com.rukiyesahin.airlinereservationsystem.dto.FlightSummary(f.id, f.flightNumber, d.code, d.city, a.code, a.city, f.departureTime, f.arrivalTime, f.status, f.availableSeats, f.basePrice, f.businessClassPrice, f.firstClassPrice, f.gate, f.terminal, ac.registration) FROM Flight f JOIN f.departureAirport d JOIN f.arrivalAirport a LEFT JOIN f.aircraft ac WHERE d.code = :departureCode AND a.code = :arrivalCode AND f.departureTime >= :startDate AND f.departureTime <= :endDate AND f.availableSeats > 0 ORDER BY f.departureTime, f.id")
+    List<FlightSummary> findAvailableFlightSummariesByRouteAndDate(@Param("departureCode") String departureCode,
+                                                                   @Param("arrivalCode") String arrivalCode,
+                                                                   @Param("startDate") LocalDateTime startDate,
+                                                                   @Param("endDate") LocalDateTime endDate);
+
+    @Modifying
+    @Query("UPDATE Flight f SET f.availableSeats = :availableSeats WHERE f.id = :id")
+    int updateAvailableSeats(@Param("id") Long id, @Param("availableSeats") Integer availableSeats);
+
+    // Aircraft assignments of flights that have not arrived yet
+    @Query("SELECT new com.rukiyesahin.airlinereservationsystem.dto.AircraftBlock(f.id, f.flightNumber, f.aircraft.id, f.departureTime, f.arrivalTime) FROM Flight f WHERE f.aircraft IS NOT NULL AND f.arrivalTime >= :since AND f.status IN ('SCHEDULED', 'DELAYED', 'BOARDING', 'DEPARTED')")
+    List<AircraftBlock> findAircraftBlocks(@Param("since") LocalDateTime since);
+
+    // Flights that still have a status transition ahead of them
+    @Query("SELECT new com.rukiyesahin.airlinereservationsystem.dto.FlightTimes(f.id, f.flightNumber, d.code, a.code, f.status, f.departureTime, f.arrivalTime) FROM Flight f JOIN f.departureAirport d JOIN f.arrivalAirport a WHERE f.status IN ('SCHEDULED', 'DELAYED', 'BOARDING', 'DEPARTED')")
+    List<FlightTimes> findActiveFlightTimes();
+
+    // Move flights to a status, skipping any that have meanwhile left the expected statuses
+    // or been rescheduled past departureBy / arrivalBy (a null arrivalBy does not check arrival)
+    @Modifying
+    @Query("UPDATE Flight f SET f.status = :status, f.updatedAt = :now WHERE f.id IN :ids AND f.status IN :fromStatuses AND f.departureTime <= :departureBy AND (:arrivalBy IS NULL OR f.arrivalTime <= :arrivalBy)")
+    int updateStatus(@Param("ids") Collection<Long> ids,
+                     @Param("status") Flight.FlightStatus status,
+                     @Param("fromStatuses") Collection<Flight.FlightStatus> fromStatuses,
+                     @Param("departureBy") LocalDateTime departureBy,
+                     @Param("arrivalBy") LocalDateTime arrivalBy,
+                     @Param("now") LocalDateTime now);
+
+    // Which of the flights are in a status now, e.g. the ones a guarded updateStatus actually moved
+    @Query("SELECT f.id FROM Flight f WHERE f.id IN :ids AND f.status = :status")
+    List<Long> findIdsInStatus(@Param("ids") Collection<Long> ids, @Param("status") Flight.FlightStatus status);
+
+    @Query("SELECT f FROM Flight f JOIN FETCH f.departureAirport JOIN FETCH f.arrivalAirport WHERE f.departureTime >= :now AND f.status = 'SCHEDULED'")
+    List<Flight> findSchedule(@Param("now") LocalDateTime now);
+
+    // Keyset pages ordered by (departureTime, id); fetch limit = page size + 1
+    @Query("SELECT f FROM Flight f JOIN FETCH f.departureAirport JOIN FETCH f.arrivalAirport LEFT JOIN FETCH f.aircraft ORDER BY f.departureTime, f.id LIMIT :limit")
+    List<Flight> findFirstPage(@Param("limit") int limit);
+
+    @Query("SELECT f FROM Flight f JOIN FETCH f.departureAirport JOIN FETCH f.arrivalAirport LEFT JOIN FETCH f.aircraft WHERE f.departureTime > :departureTime OR (f.departureTime = :departureTime AND f.id > :id) ORDER BY f.departureTime, f.id LIMIT :limit")
+    List<Flight> findPageAfter(@Param("departureTime") LocalDateTime departureTime,
+                               @Param("id") Long id,
+                               @Param("limit") int limit);
+
+    @Query("SELECT f FROM Flight f JOIN FETCH f.departureAirport JOIN FETCH f.arrivalAirport LEFT JOIN FETCH f.aircraft WHERE f.status = :status ORDER BY f.departureTime, f.id LIMIT :limit")
+    List<Flight> findFirstPageByStatus(@Param("status") Flight.FlightStatus status, @Param("limit") int limit);
+
+    @Query("SELECT f FROM Flight f JOIN FETCH f.departureAirport JOIN FETCH f.arrivalAirport LEFT JOIN FETCH f.aircraft WHERE f.status = :status AND (f.departureTime > :departureTime OR (f.departureTime = :departureTime AND f.id > :id)) ORDER BY f.departureTime, f.id LIMIT :limit")
+    List<Flight> findPageByStatusAfter(@Param("status") Flight.FlightStatus status,
+                                       @Param("departureTime") LocalDateTime departureTime,
+                                       @Param("id") Long id,
+                                       @Param("limit") int limit);
+
+    @Query("SELECT f FROM Flight f JOIN FETCH f.departureAirport d JOIN FETCH f.arrivalAirport a LEFT JOIN FETCH f.aircraft WHERE d.country = :country OR a.country = :country ORDER BY f.departureTime, f.id LIMIT :limit")
+    List<Flight> findFirstPageByCountry(@Param("country") String country, @Param("limit") int limit);
+
+    @Query("SELECT f FROM Flight f JOIN FETCH f.departureAirport d JOIN FETCH f.arrivalAirport a LEFT JOIN FETCH f.aircraft WHERE (d.country = :country OR a.country = :country) AND (f.departureTime > :departureTime OR (f.departureTime = :departureTime AND f.id > :id)) ORDER BY f.departureTime, f.id LIMIT :limit")
+    List<Flight> findPageByCountryAfter(@Param("country") String country,
+                                        @Param("departureTime") LocalDateTime departureTime,
+                                        @Param("id") Long id,
+                                        @Param("limit") int limit);
+
+    @Query("SELECT f FROM Flight f JOIN FETCH f.departureAirport d JOIN FETCH f.arrivalAirport a LEFT JOIN FETCH f.aircraft WHERE d.city = :city OR a.city = :city ORDER BY f.departureTime, f.id LIMIT :limit")
+    List<Flight> findFirstPageByCity(@Param("city") String city, @Param("limit") int limit);
+
+    @Query("SELECT f FROM Flight f JOIN FETCH f.departureAirport d JOIN FETCH f.arrivalAirport a LEFT JOIN FETCH f.aircraft WHERE (d.city = :city OR a.city = :city) AND (f.departureTime > :departureTime OR (f.departureTime = :departureTime AND f.id > :id)) ORDER BY f.departureTime, f.id LIMIT :limit")
+    List<Flight> findPageByCityAfter(@Param("city") String city,
+                                     @Param("departureTime") LocalDateTime departureTime,
+                                     @Param("id") Long id,
+                                     @Param("limit") int limit);
+
+    // Full schedule for streaming export; rows are read in fetch-size chunks from an open cursor
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT f FROM Flight f JOIN FETCH f.departureAirport JOIN FETCH f.arrivalAirport LEFT JOIN FETCH f.aircraft ORDER BY f.departureTime, f.id")
+    Stream<Flight> streamAll();
+
+    // Which of the given flight numbers are already taken
+    @Query("SELECT f.flightNumber FROM Flight f WHERE f.flightNumber IN :flightNumbers")
+    List<String> findExistingFlightNumbers(@Param("flightNumbers") Collection<String> flightNumbers);
+}
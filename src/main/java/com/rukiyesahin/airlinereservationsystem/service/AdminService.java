@@ -0,0 +1,134 @@
+package com.rukiyesahin.airlinereservationsystem.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CollectionStatistics;
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Query diagnostics for operators: the slow-query log and Hibernate session statistics
+@Service
+public class AdminService {
+
+    private static final int MAX_REPORTED_QUERIES = 20;
+
+    @Autowired
+    private SlowQueryRecorder slowQueryRecorder;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    // Most recent slow queries, newest first
+    public List<SlowQueryRecorder.SlowQuery> getSlowQueries(int limit) {
+        return slowQueryRecorder.getSlowQueries(limit);
+    }
+
+    // Slow-query log settings and counts, with the retained queries grouped by SQL
+    public Map<String, Object> getSlowQuerySummary() {
+        Map<String, Object> summary = new LinkedHashMap<>(slowQueryRecorder.getStats());
+        summary.put("slowestStatements", slowQueryRecorder.getSlowStatements());
+        return summary;
+    }
+
+    public void clearSlowQueries() {
+        slowQueryRecorder.clear();
+    }
+
+    // Session-level counters plus per-entity, per-collection and per-query breakdowns.
+    // A collection with many fetches relative to loads is usually an N+1 select.
+    public Map<String, Object> getHibernateStatistics() {
+        Statistics statistics = statistics();
+        Map<String, Object> totals = new LinkedHashMap<>();
+        totals.put("sessionsOpened", statistics.getSessionOpenCount());
+        totals.put("sessionsClosed", statistics.getSessionCloseCount());
+        totals.put("transactions", statistics.getTransactionCount());
+        totals.put("flushes", statistics.getFlushCount());
+        totals.put("connectionsObtained", statistics.getConnectCount());
+        totals.put("statementsPrepared", statistics.getPrepareStatementCount());
+        totals.put("entityLoads", statistics.getEntityLoadCount());
+        totals.put("entityFetches", statistics.getEntityFetchCount());
+        totals.put("entityInserts", statistics.getEntityInsertCount());
+        totals.put("entityUpdates", statistics.getEntityUpdateCount());
+        totals.put("entityDeletes", statistics.getEntityDeleteCount());
+        totals.put("collectionLoads", statistics.getCollectionLoadCount());
+        totals.put("collectionFetches", statistics.getCollectionFetchCount());
+        totals.put("queryExecutions", statistics.getQueryExecutionCount());
+        totals.put("queryExecutionMaxTimeMs", statistics.getQueryExecutionMaxTime());
+        totals.put("queryExecutionMaxTimeQuery", statistics.getQueryExecutionMaxTimeQueryString());
+        totals.put("optimisticFailures", statistics.getOptimisticFailureCount());
+
+        Map<String, Object> entities = new LinkedHashMap<>();
+        for (String entityName : statistics.getEntityNames()) {
+            EntityStatistics entity = statistics.getEntityStatistics(entityName);
+            if (entity.getLoadCount() + entity.getFetchCount() + entity.getInsertCount() + entity.getUpdateCount() > 0) {
+                entities.put(simpleName(entityName), Map.of(
+                        "loads", entity.getLoadCount(),
+                        "fetches", entity.getFetchCount(),
+                        "inserts", entity.getInsertCount(),
+                        "updates", entity.getUpdateCount()));
+            }
+        }
+
+        Map<String, Object> collections = new LinkedHashMap<>();
+        for (String role : statistics.getCollectionRoleNames()) {
+            CollectionStatistics collection = statistics.getCollectionStatistics(role);
+            if (collection.getLoadCount() + collection.getFetchCount() > 0) {
+                collections.put(simpleName(role), Map.of(
+                        "loads", collection.getLoadCount(),
+                        "fetches", collection.getFetchCount()));
+            }
+        }
+
+        Map<String, Object> queries = new LinkedHashMap<>();
+        Arrays.stream(statistics.getQueries())
+                .map(query -> Map.entry(query, statistics.getQueryStatistics(query)))
+                .sorted(Comparator.comparingLong((Map.Entry<String, QueryStatistics> entry) ->
+                        entry.getValue().getExecutionTotalTime()).reversed())
+                .limit(MAX_REPORTED_QUERIES)
+                .forEach(entry -> queries.put(entry.getKey(), Map.of(
+                        "executions", entry.getValue().getExecutionCount(),
+                        "rows", entry.getValue().getExecutionRowCount(),
+                        "totalTimeMs", entry.getValue().getExecutionTotalTime(),
+                        "avgTimeMs", entry.getValue().getExecutionAvgTime(),
+                        "maxTimeMs", entry.getValue().getExecutionMaxTime())));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("enabled", statistics.isStatisticsEnabled());
+        report.put("startedAt", statistics.getStart());
+        report.put("totals", totals);
+        report.put("entities", entities);
+        report.put("collections", collections);
+        report.put("queries", queries);
+        return report;
+    }
+
+    public void clearHibernateStatistics() {
+        statistics().clear();
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    // Drops the package: com.example.entity.Flight.bookings -> Flight.bookings
+    private static String simpleName(String name) {
+        int start = 0;
+        while (start < name.length() && Character.isLowerCase(name.charAt(start))) {
+            int dot = name.indexOf('.', start);
+            if (dot < 0) {
+                break;
+            }
+            start = dot + 1;
+        }
+        return name.substring(start);
+    }
+}
@@ -0,0 +1,249 @@
+package com.rukiyesahin.airlinereservationsystem.service;
+
+import com.rukiyesahin.airlinereservationsystem.dto.AircraftBlock;
+import com.rukiyesahin.airlinereservationsystem.entity.Flight;
+import com.rukiyesahin.airlinereservationsystem.exception.AircraftScheduleConflictException;
+import com.rukiyesahin.airlinereservationsystem.repository.FlightRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Flight blocks per aircraft, ordered by departure. A new block can only clash with blocks departing
+// after it until it has turned around, or with earlier blocks departing no further back than the
+// longest block plus the turnaround, so a conflict check is a couple of short O(log n) tree walks
+// instead of a range query per insert. Earlier blocks are all checked, not just the nearest one,
+// as a cascaded delay can leave blocks of one aircraft overlapping.
+@Component
+public class AircraftRotationIndex {
+
+    private static final Comparator<AircraftBlock> BY_DEPARTURE =
+            Comparator.comparing(AircraftBlock::departureTime).thenComparing(AircraftBlock::flightId);
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Value("${airline.rotation.min-turnaround-minutes:45}")
+    private int minTurnaroundMinutes;
+
+    private final Map<Long, NavigableSet<AircraftBlock>> rotations = new HashMap<>();
+    private final Map<Long, AircraftBlock> blocksByFlight = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    // Longest block ever indexed, bounds how far back a conflict check has to look
+    private Duration longestBlock = Duration.ZERO;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        List<AircraftBlock> blocks = flightRepository.findAircraftBlocks(LocalDateTime.now().minus(turnaround()));
+        lock.lock();
+        try {
+            rotations.clear();
+            blocksByFlight.clear();
+            blocks.forEach(this::put);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Claim the flight's aircraft for its times, failing if that clashes with another flight of the
+    // aircraft. Inside a transaction the claim is undone if the transaction rolls back.
+    public void reserve(Flight flight) {
+        AircraftBlock block = toBlock(flight);
+        AircraftBlock previous;
+        lock.lock();
+        try {
+            if (block != null) {
+                Optional<AircraftBlock> conflict = findConflict(block.aircraftId(), block.departureTime(),
+                        block.arrivalTime(), block.flightId());
+                if (conflict.isPresent()) {
+                    throw new AircraftScheduleConflictException("Aircraft is assigned to flight "
+                            + conflict.get().flightNumber() + " from " + conflict.get().departureTime()
+                            + " to " + conflict.get().arrivalTime() + ", and needs " + minTurnaroundMinutes
+                            + " minutes between flights");
+                }
+            }
+            previous = replace(flight.getId(), block);
+        } finally {
+            lock.unlock();
+        }
+        undoOnRollback(flight.getId(), previous);
+    }
+
+    // Record the flight's current times without checking, e.g. after a cascaded delay; cancelled
+    // flights are dropped. Inside a transaction this is undone if the transaction rolls back.
+    public void refresh(Flight flight) {
+        AircraftBlock block = toBlock(flight);
+        AircraftBlock previous;
+        lock.lock();
+        try {
+            previous = replace(flight.getId(), block);
+        } finally {
+            lock.unlock();
+        }
+        undoOnRollback(flight.getId(), previous);
+    }
+
+    // The block that keeps the aircraft from flying between departure and arrival, if any
+    public Optional<AircraftBlock> findConflict(Long aircraftId, LocalDateTime departure, LocalDateTime arrival,
+                                                Long ignoredFlightId) {
+        lock.lock();
+        try {
+            NavigableSet<AircraftBlock> rotation = rotations.get(aircraftId);
+            if (rotation == null) {
+                return Optional.empty();
+            }
+            Duration turnaround = turnaround();
+            // Blocks departing no later than this one clash if they have not turned around by its departure;
+            // none departing before reach can still be on the aircraft
+            LocalDateTime reach = departure.minus(longestBlock).minus(turnaround);
+            for (AircraftBlock before : rotation.headSet(probe(departure, Long.MAX_VALUE), true).descendingSet()) {
+                if (before.departureTime().isBefore(reach)) {
+                    break;
+                }
+                if (!before.flightId().equals(ignoredFlightId)
+                        && before.arrivalTime().plus(turnaround).isAfter(departure)) {
+                    return Optional.of(before);
+                }
+            }
+            // Blocks departing later clash if they leave before this one has turned around
+            LocalDateTime free = arrival.plus(turnaround);
+            for (AircraftBlock after : rotation.tailSet(probe(departure, Long.MAX_VALUE), false)) {
+                if (!after.departureTime().isBefore(free)) {
+                    break;
+                }
+                if (!after.flightId().equals(ignoredFlightId)) {
+                    return Optional.of(after);
+                }
+            }
+            return Optional.empty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Earliest start at or after from when the aircraft is on the ground, turnaround included, for duration
+    public LocalDateTime findGap(Long aircraftId, LocalDateTime from, Duration duration) {
+        lock.lock();
+        try {
+            LocalDateTime start = from;
+            Optional<AircraftBlock> conflict;
+            // Each step jumps past one block, so this walks the rotation at most once
+            while ((conflict = findConflict(aircraftId, start, start.plus(duration), null)).isPresent()) {
+                start = conflict.get().arrivalTime().plus(turnaround());
+            }
+            return start;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Aircraft among the candidates with no flight between from and to, turnaround included
+    public List<Long> findFree(Collection<Long> aircraftIds, LocalDateTime from, LocalDateTime to) {
+        lock.lock();
+        try {
+            return aircraftIds.stream()
+                    .filter(aircraftId -> findConflict(aircraftId, from, to, null).isEmpty())
+                    .toList();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Duration getTurnaround() {
+        return turnaround();
+    }
+
+    public int getBlockCount() {
+        lock.lock();
+        try {
+            return blocksByFlight.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void undoOnRollback(Long flightId, AircraftBlock previous) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    lock.lock();
+                    try {
+                        replace(flightId, previous);
+                    } finally {
+                        lock.unlock();
+                    }
+                }
+            }
+        });
+    }
+
+    // Swap the flight's block, returning the one it had (caller holds the lock)
+    private AircraftBlock replace(Long flightId, AircraftBlock block) {
+        AircraftBlock previous = blocksByFlight.remove(flightId);
+        if (previous != null) {
+            NavigableSet<AircraftBlock> rotation = rotations.get(previous.aircraftId());
+            rotation.remove(previous);
+            if (rotation.isEmpty()) {
+                rotations.remove(previous.aircraftId());
+            }
+        }
+        if (block != null) {
+            put(block);
+        }
+        return previous;
+    }
+
+    private void put(AircraftBlock block) {
+        NavigableSet<AircraftBlock> rotation = rotations.computeIfAbsent(block.aircraftId(), id -> new TreeSet<>(BY_DEPARTURE));
+        // Blocks that have turned around already can never clash again
+        LocalDateTime expired = LocalDateTime.now().minus(turnaround());
+        while (!rotation.isEmpty() && rotation.first().arrivalTime().isBefore(expired)) {
+            blocksByFlight.remove(rotation.pollFirst().flightId());
+        }
+        rotation.add(block);
+        blocksByFlight.put(block.flightId(), block);
+        Duration length = Duration.between(block.departureTime(), block.arrivalTime());
+        if (length.compareTo(longestBlock) > 0) {
+            longestBlock = length;
+        }
+    }
+
+    private Duration turnaround() {
+        return Duration.ofMinutes(minTurnaroundMinutes);
+    }
+
+    // Flights that no longer hold their aircraft have no block
+    private static AircraftBlock toBlock(Flight flight) {
+        if (flight.getAircraft() == null || flight.getDepartureTime() == null || flight.getArrivalTime() == null
+                || flight.getStatus() == Flight.FlightStatus.CANCELLED
+                || flight.getStatus() == Flight.FlightStatus.DIVERTED
+                || flight.getStatus() == Flight.FlightStatus.ARRIVED) {
+            return null;
+        }
+        return new AircraftBlock(flight.getId(), flight.getFlightNumber(), flight.getAircraft().getId(),
+                flight.getDepartureTime(), flight.getArrivalTime());
+    }
+
+    private static AircraftBlock probe(LocalDateTime departure, long flightId) {
+        return new AircraftBlock(flightId, null, null, departure, null);
+    }
+}
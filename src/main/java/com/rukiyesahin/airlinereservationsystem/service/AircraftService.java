@@ -1,22 +1,40 @@
 package com.rukiyesahin.airlinereservationsystem.service;
 
+import com.rukiyesahin.airlinereservationsystem.dto.AircraftBlock;
+import com.rukiyesahin.airlinereservationsystem.dto.AircraftSummary;
+import com.rukiyesahin.airlinereservationsystem.dto.MaintenanceSlot;
 import com.rukiyesahin.airlinereservationsystem.entity.Aircraft;
+import com.rukiyesahin.airlinereservationsystem.exception.AircraftScheduleConflictException;
+import com.rukiyesahin.airlinereservationsystem.exception.InvalidAircraftDataException;
 import com.rukiyesahin.airlinereservationsystem.repository.AircraftRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
 @Transactional
 public class AircraftService {
 
+    private static final String PAGE_SCOPE = "aircraft";
+
     @Autowired
     private AircraftRepository aircraftRepository;
 
+    @Autowired
+    private KeysetPagination keysetPagination;
+
+    @Autowired
+    private AircraftRotationIndex aircraftRotationIndex;
+
+    @Autowired
+    private MaintenancePlanner maintenancePlanner;
+
     // Create new aircraft
     public Aircraft createAircraft(Aircraft aircraft) {
         return aircraftRepository.save(aircraft);
@@ -34,14 +52,18 @@ public class AircraftService {
                 .orElseThrow(() -> new RuntimeException("Aircraft not found with registration: " + registration));
     }
 
-    // Get all aircraft
-    public List<Aircraft> getAllAircraft() {
-        return aircraftRepository.findAll();
+    // Get one page of all aircraft
+    @Transactional(readOnly = true)
+    public CursorPage<AircraftSummary> getAllAircraft(String cursor, Integer size) {
+        int pageSize = keysetPagination.pageSize(size);
+        return toPage(aircraftRepository.findPageAfter(afterId(cursor), pageSize + 1), pageSize);
     }
 
-    // Get aircraft by status
-    public List<Aircraft> getAircraftByStatus(Aircraft.AircraftStatus status) {
-        return aircraftRepository.findByStatus(status);
+    // Get one page of aircraft by status
+    @Transactional(readOnly = true)
+    public CursorPage<AircraftSummary> getAircraftByStatus(Aircraft.AircraftStatus status, String cursor, Integer size) {
+        int pageSize = keysetPagination.pageSize(size);
+        return toPage(aircraftRepository.findPageByStatusAfter(status, afterId(cursor), pageSize + 1), pageSize);
     }
 
     // Get aircraft by manufacturer
@@ -74,6 +96,23 @@ public class AircraftService {
         return aircraftRepository.findActiveAircraft();
     }
 
+    // Get active aircraft with no flight between from and to, turnaround included
+    @Transactional(readOnly = true)
+    public List<Aircraft> getAvailableAircraft(LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new InvalidAircraftDataException("Availability window must end after it starts");
+        }
+        Map<Long, Aircraft> candidates = new LinkedHashMap<>();
+        for (Aircraft aircraft : aircraftRepository.findActiveAircraft()) {
+            if (!aircraft.needsMaintenance()) {
+                candidates.put(aircraft.getId(), aircraft);
+            }
+        }
+        return aircraftRotationIndex.findFree(candidates.keySet(), from, to).stream()
+                .map(candidates::get)
+                .toList();
+    }
+
     // Get aircraft in maintenance
     public List<Aircraft> getAircraftInMaintenance() {
         return aircraftRepository.findAircraftInMaintenance();
@@ -187,14 +226,27 @@ public class AircraftService {
         return aircraftRepository.save(aircraft);
     }
 
-    // Schedule maintenance
+    // Schedule maintenance. Only the date is recorded: the aircraft stays ACTIVE, so its flights before
+    // the window keep it and the planner still sees it, until its status is set when maintenance starts
     public Aircraft scheduleMaintenance(Long id, LocalDateTime maintenanceDate) {
         Aircraft aircraft = getAircraftById(id);
+        Optional<AircraftBlock> conflict = aircraftRotationIndex.findConflict(id, maintenanceDate,
+                maintenanceDate.plus(maintenancePlanner.getDuration()), null);
+        if (conflict.isPresent()) {
+            throw new AircraftScheduleConflictException("Aircraft is assigned to flight " + conflict.get().flightNumber()
+                    + " during the maintenance window, next free slot starts at "
+                    + aircraftRotationIndex.findGap(id, maintenanceDate, maintenancePlanner.getDuration()));
+        }
         aircraft.setNextMaintenance(maintenanceDate);
-        aircraft.setStatus(Aircraft.AircraftStatus.MAINTENANCE);
         return aircraftRepository.save(aircraft);
     }
 
+    // Propose a maintenance slot for every aircraft due within the horizon
+    @Transactional(readOnly = true)
+    public List<MaintenanceSlot> getMaintenancePlan(Integer horizonDays) {
+        return maintenancePlanner.plan(horizonDays);
+    }
+
     // Complete maintenance
     public Aircraft completeMaintenance(Long id) {
         Aircraft aircraft = getAircraftById(id);
@@ -203,5 +255,11 @@ public class AircraftService {
         return aircraftRepository.save(aircraft);
     }
 
+    private Long afterId(String cursor) {
+        return cursor == null || cursor.isBlank() ? 0L : keysetPagination.decodeId(PAGE_SCOPE, cursor);
+    }
 
-}
\ No newline at end of file
+    private CursorPage<AircraftSummary> toPage(List<AircraftSummary> rows, int pageSize) {
+        return keysetPagination.page(rows, pageSize, aircraft -> keysetPagination.encodeId(PAGE_SCOPE, aircraft.id()));
+    }
+}
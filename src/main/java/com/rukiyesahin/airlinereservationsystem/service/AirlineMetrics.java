@@ -0,0 +1,50 @@
+package com.rukiyesahin.airlinereservationsystem.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+// Business counters published next to the request and repository timers on /actuator/prometheus
+@Component
+public class AirlineMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final Counter seatsBooked;
+    private final Counter seatsCancelled;
+
+    public AirlineMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.seatsBooked = Counter.builder("airline.seats.booked")
+                .description("Seats taken through the booking endpoint")
+                .register(meterRegistry);
+        this.seatsCancelled = Counter.builder("airline.seats.cancelled")
+                .description("Seats given back through the cancellation endpoint")
+                .register(meterRegistry);
+    }
+
+    public void seatBooked() {
+        seatsBooked.increment();
+    }
+
+    public void seatCancelled() {
+        seatsCancelled.increment();
+    }
+
+    // Flights moved on by the status scheduler, tagged with the status they reached
+    public void statusTransitions(String status, int count) {
+        Counter.builder("airline.flights.status.transitions")
+                .description("Flights moved to boarding, departed or arrived by the status scheduler")
+                .tag("status", status)
+                .register(meterRegistry)
+                .increment(count);
+    }
+
+    // Exceptions turned into error responses, tagged with the exception class
+    public void exceptionHandled(Exception ex) {
+        Counter.builder("airline.exceptions")
+                .description("Exceptions handled by GlobalExceptionHandler")
+                .tag("type", ex.getClass().getSimpleName())
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,111 @@
+package com.rukiyesahin.airlinereservationsystem.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.rukiyesahin.airlinereservationsystem.entity.Airport;
+import com.rukiyesahin.airlinereservationsystem.repository.AirportRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+// Bounded near-cache of airports by code and id. Airports are read on every search but
+// almost never change, so AirportService invalidates entries once a create, update or delete commits.
+@Component
+public class AirportCache {
+
+    @Autowired
+    private AirportRepository airportRepository;
+
+    private final Cache<String, Airport> byCode;
+    private final Cache<Long, Airport> byId;
+
+    public AirportCache(@Value("${airline.cache.airport.max-size:10000}") long maxSize,
+                        @Value("${airline.cache.airport.expire-after-write-minutes:60}") long expireAfterWriteMinutes) {
+        this.byCode = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(expireAfterWriteMinutes))
+                .recordStats()
+                .build();
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(expireAfterWriteMinutes))
+                .recordStats()
+                .build();
+    }
+
+    // Find airport by code, loading it on a miss
+    public Optional<Airport> findByCode(String code) {
+        Airport airport = byCode.get(code, key -> airportRepository.findByCode(key).orElse(null));
+        if (airport != null) {
+            byId.put(airport.getId(), airport);
+        }
+        return Optional.ofNullable(airport);
+    }
+
+    // Find airport by ID, loading it on a miss
+    public Optional<Airport> findById(Long id) {
+        Airport airport = byId.get(id, key -> airportRepository.findById(key).orElse(null));
+        if (airport != null) {
+            byCode.put(airport.getCode(), airport);
+        }
+        return Optional.ofNullable(airport);
+    }
+
+    // Code of an airport that may only carry its id, as on flights created through the API
+    public Optional<String> codeOf(Airport airport) {
+        if (airport.getCode() != null) {
+            return Optional.of(airport.getCode());
+        }
+        return airport.getId() == null ? Optional.empty() : findById(airport.getId()).map(Airport::getCode);
+    }
+
+    // Drop an airport under both its ID and code
+    public void invalidate(Airport airport) {
+        if (airport.getId() != null) {
+            Airport cached = byId.getIfPresent(airport.getId());
+            if (cached != null) {
+                byCode.invalidate(cached.getCode());
+            }
+            byId.invalidate(airport.getId());
+        }
+        if (airport.getCode() != null) {
+            byCode.invalidate(airport.getCode());
+        }
+    }
+
+    // Drop a code lookup, e.g. the old code of a renamed airport
+    public void invalidateCode(String code) {
+        if (code != null) {
+            byCode.invalidate(code);
+        }
+    }
+
+    public void invalidateAll() {
+        byCode.invalidateAll();
+        byId.invalidateAll();
+    }
+
+    // Hit/miss metrics for both lookups
+    public Map<String, Map<String, Object>> getStats() {
+        Map<String, Map<String, Object>> stats = new LinkedHashMap<>();
+        stats.put("byCode", toMap(byCode.stats(), byCode.estimatedSize()));
+        stats.put("byId", toMap(byId.stats(), byId.estimatedSize()));
+        return stats;
+    }
+
+    private static Map<String, Object> toMap(CacheStats stats, long size) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("size", size);
+        values.put("hits", stats.hitCount());
+        values.put("misses", stats.missCount());
+        values.put("hitRate", stats.hitRate());
+        values.put("evictions", stats.evictionCount());
+        return values;
+    }
+}
@@ -0,0 +1,385 @@
+package com.rukiyesahin.airlinereservationsystem.service;
+
+import com.rukiyesahin.airlinereservationsystem.entity.Airport;
+import com.rukiyesahin.airlinereservationsystem.repository.AirportRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Spatial index over airport coordinates for nearest and radius queries.
+// Airports are stored as points on the unit sphere in a k-d tree; the straight-line (chord)
+// distance between two points grows with the great-circle distance, so the tree can prune
+// by chord distance and report exact great-circle kilometres.
+@Component
+public class AirportGeoIndex {
+
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+
+    @Autowired
+    private AirportRepository airportRepository;
+
+    // Overlay edits past which the tree is rebuilt, at least this many and otherwise sqrt(n)
+    private static final int MIN_PENDING_EDITS = 16;
+
+    private final Map<Long, NearbyAirport> airports = new HashMap<>();
+    private volatile Snapshot snapshot = new Snapshot(KdTree.build(List.of()), Map.of(), Set.of());
+    private final ReentrantLock lock = new ReentrantLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        lock.lock();
+        try {
+            airports.clear();
+            for (Airport airport : airportRepository.findAirportsWithCoordinates()) {
+                airports.put(airport.getId(), toPoint(airport));
+            }
+            rebuild();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Add or move an airport, airports without coordinates are removed
+    public void index(Airport airport) {
+        lock.lock();
+        try {
+            if (airport.getLatitude() == null || airport.getLongitude() == null) {
+                remove(airport.getId());
+                return;
+            }
+            NearbyAirport point = toPoint(airport);
+            NearbyAirport previous = airports.put(airport.getId(), point);
+            Snapshot current = snapshot;
+            Map<Long, NearbyAirport> added = new HashMap<>(current.added());
+            added.put(point.id(), point);
+            Set<Long> stale = new HashSet<>(current.stale());
+            if (previous != null && !current.added().containsKey(point.id())) {
+                // The old position is a tree node; hide it
+                stale.add(point.id());
+            }
+            publish(current.tree(), added, stale);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void remove(Long airportId) {
+        lock.lock();
+        try {
+            if (airports.remove(airportId) == null) {
+                return;
+            }
+            Snapshot current = snapshot;
+            Map<Long, NearbyAirport> added = new HashMap<>(current.added());
+            Set<Long> stale = new HashSet<>(current.stale());
+            // An airport in the overlay has any tree node of it marked stale already
+            if (added.remove(airportId) == null) {
+                stale.add(airportId);
+            }
+            publish(current.tree(), added, stale);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // The k airports closest to the point, nearest first
+    public List<NearbyAirport> nearest(double latitude, double longitude, int k) {
+        Snapshot current = snapshot;
+        double[] target = unitVector(latitude, longitude);
+        List<NearbyAirport> found = current.tree().nearest(target, k, current.stale());
+        if (current.added().isEmpty() || k <= 0) {
+            return found;
+        }
+        List<NearbyAirport> merged = new ArrayList<>(found);
+        for (NearbyAirport airport : current.added().values()) {
+            merged.add(airport.withDistance(chordToKm(squaredChord(airport, target))));
+        }
+        merged.sort(Comparator.comparingDouble(NearbyAirport::distanceKm));
+        return merged.size() > k ? new ArrayList<>(merged.subList(0, k)) : merged;
+    }
+
+    // Airports within radiusKm of the point, nearest first
+    public List<NearbyAirport> withinRadius(double latitude, double longitude, double radiusKm, int limit) {
+        Snapshot current = snapshot;
+        double chord = 2 * Math.sin(Math.min(radiusKm / EARTH_RADIUS_KM, Math.PI) / 2);
+        double[] target = unitVector(latitude, longitude);
+        List<NearbyAirport> found = current.tree().withinChord(target, chord * chord, current.stale());
+        if (!current.added().isEmpty()) {
+            for (NearbyAirport airport : current.added().values()) {
+                double squared = squaredChord(airport, target);
+                if (squared <= chord * chord) {
+                    found.add(airport.withDistance(chordToKm(squared)));
+                }
+            }
+            found.sort(Comparator.comparingDouble(NearbyAirport::distanceKm));
+        }
+        return found.size() > limit ? new ArrayList<>(found.subList(0, limit)) : found;
+    }
+
+    // Single-airport writes go to a small overlay that queries scan linearly, and tree nodes they
+    // replace are skipped; the tree is only rebuilt once the overlay outgrows sqrt(n) (caller holds the lock)
+    private void publish(KdTree tree, Map<Long, NearbyAirport> added, Set<Long> stale) {
+        int limit = Math.max(MIN_PENDING_EDITS, (int) Math.sqrt(tree.size()));
+        if (added.size() + stale.size() > limit) {
+            rebuild();
+        } else {
+            snapshot = new Snapshot(tree, Map.copyOf(added), Set.copyOf(stale));
+        }
+    }
+
+    private void rebuild() {
+        snapshot = new Snapshot(KdTree.build(new ArrayList<>(airports.values())), Map.of(), Set.of());
+    }
+
+    // Great-circle distance between two points (haversine)
+    public static double distanceKm(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double dLat = Math.toRadians(latitude2 - latitude1);
+        double dLon = Math.toRadians(longitude2 - longitude1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private static NearbyAirport toPoint(Airport airport) {
+        return new NearbyAirport(airport.getId(), airport.getCode(), airport.getName(), airport.getCity(),
+                airport.getCountry(), airport.getLatitude(), airport.getLongitude(), 0);
+    }
+
+    private static double[] unitVector(double latitude, double longitude) {
+        double lat = Math.toRadians(latitude);
+        double lon = Math.toRadians(longitude);
+        return new double[] {Math.cos(lat) * Math.cos(lon), Math.cos(lat) * Math.sin(lon), Math.sin(lat)};
+    }
+
+    private static double squaredChord(NearbyAirport airport, double[] target) {
+        return KdTree.squaredDistance(unitVector(airport.latitude(), airport.longitude()), target);
+    }
+
+    private static double chordToKm(double squaredChord) {
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(squaredChord) / 2));
+    }
+
+    public record NearbyAirport(Long id, String code, String name, String city, String country,
+                                double latitude, double longitude, double distanceKm) {
+
+        private NearbyAirport withDistance(double distanceKm) {
+            return new NearbyAirport(id, code, name, city, country, latitude, longitude, distanceKm);
+        }
+    }
+
+    // What a query reads as one unit: the tree, airports written since it was built, and tree nodes
+    // those writes moved or removed
+    private record Snapshot(KdTree tree, Map<Long, NearbyAirport> added, Set<Long> stale) {
+    }
+
+    // Immutable k-d tree stored in arrays; the node of range [lo, hi) is its median element
+    private static final class KdTree {
+        private final NearbyAirport[] airports;
+        private final double[][] coordinates;
+
+        private KdTree(NearbyAirport[] airports, double[][] coordinates) {
+            this.airports = airports;
+            this.coordinates = coordinates;
+        }
+
+        static KdTree build(List<NearbyAirport> points) {
+            int size = points.size();
+            NearbyAirport[] airports = points.toArray(new NearbyAirport[0]);
+            double[][] coordinates = new double[size][];
+            for (int i = 0; i < size; i++) {
+                coordinates[i] = unitVector(airports[i].latitude(), airports[i].longitude());
+            }
+            KdTree tree = new KdTree(airports, coordinates);
+            tree.arrange(0, size, 0);
+            return tree;
+        }
+
+        int size() {
+            return airports.length;
+        }
+
+        // Nodes whose airport id is in skipped are left out of both searches
+        List<NearbyAirport> nearest(double[] target, int k, Set<Long> skipped) {
+            if (k <= 0 || airports.length == 0) {
+                return List.of();
+            }
+            Candidates best = new Candidates(Math.min(k, airports.length));
+            searchNearest(target, 0, airports.length, 0, best, skipped);
+            return best.toSortedList(airports);
+        }
+
+        List<NearbyAirport> withinChord(double[] target, double maxSquaredChord, Set<Long> skipped) {
+            List<NearbyAirport> found = new ArrayList<>();
+            searchRadius(target, maxSquaredChord, 0, airports.length, 0, found, skipped);
+            found.sort(Comparator.comparingDouble(NearbyAirport::distanceKm));
+            return found;
+        }
+
+        private void searchNearest(double[] target, int lo, int hi, int axis, Candidates best, Set<Long> skipped) {
+            if (lo >= hi) {
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            if (!skipped.contains(airports[mid].id())) {
+                best.offer(mid, squaredDistance(coordinates[mid], target));
+            }
+            double diff = target[axis] - coordinates[mid][axis];
+            int next = (axis + 1) % 3;
+            if (diff < 0) {
+                searchNearest(target, lo, mid, next, best, skipped);
+                if (!best.isFull() || diff * diff < best.worst()) {
+                    searchNearest(target, mid + 1, hi, next, best, skipped);
+                }
+            } else {
+                searchNearest(target, mid + 1, hi, next, best, skipped);
+                if (!best.isFull() || diff * diff < best.worst()) {
+                    searchNearest(target, lo, mid, next, best, skipped);
+                }
+            }
+        }
+
+        private void searchRadius(double[] target, double maxSquaredChord, int lo, int hi, int axis,
+                                  List<NearbyAirport> found, Set<Long> skipped) {
+            if (lo >= hi) {
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            double squared = squaredDistance(coordinates[mid], target);
+            if (squared <= maxSquaredChord && !skipped.contains(airports[mid].id())) {
+                found.add(airports[mid].withDistance(chordToKm(squared)));
+            }
+            double diff = target[axis] - coordinates[mid][axis];
+            int next = (axis + 1) % 3;
+            if (diff < 0 || diff * diff <= maxSquaredChord) {
+                searchRadius(target, maxSquaredChord, lo, mid, next, found, skipped);
+            }
+            if (diff >= 0 || diff * diff <= maxSquaredChord) {
+                searchRadius(target, maxSquaredChord, mid + 1, hi, next, found, skipped);
+            }
+        }
+
+        // Quickselect the median on the axis, then arrange both halves on the next axis
+        private void arrange(int lo, int hi, int axis) {
+            if (hi - lo <= 1) {
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            int left = lo;
+            int right = hi - 1;
+            while (left < right) {
+                int pivotIndex = partition(left, right, (left + right) >>> 1, axis);
+                if (pivotIndex == mid) {
+                    break;
+                } else if (pivotIndex < mid) {
+                    left = pivotIndex + 1;
+                } else {
+                    right = pivotIndex - 1;
+                }
+            }
+            int next = (axis + 1) % 3;
+            arrange(lo, mid, next);
+            arrange(mid + 1, hi, next);
+        }
+
+        private int partition(int left, int right, int pivotIndex, int axis) {
+            double pivot = coordinates[pivotIndex][axis];
+            swap(pivotIndex, right);
+            int store = left;
+            for (int i = left; i < right; i++) {
+                if (coordinates[i][axis] < pivot) {
+                    swap(i, store++);
+                }
+            }
+            swap(store, right);
+            return store;
+        }
+
+        private void swap(int i, int j) {
+            NearbyAirport airport = airports[i];
+            airports[i] = airports[j];
+            airports[j] = airport;
+            double[] point = coordinates[i];
+            coordinates[i] = coordinates[j];
+            coordinates[j] = point;
+        }
+
+        private static double squaredDistance(double[] a, double[] b) {
+            double dx = a[0] - b[0];
+            double dy = a[1] - b[1];
+            double dz = a[2] - b[2];
+            return dx * dx + dy * dy + dz * dz;
+        }
+    }
+
+    // Bounded max-heap of the closest nodes found so far
+    private static final class Candidates {
+        private final int[] nodes;
+        private final double[] distances;
+        private int size;
+
+        Candidates(int capacity) {
+            this.nodes = new int[capacity];
+            this.distances = new double[capacity];
+        }
+
+        boolean isFull() {
+            return size == nodes.length;
+        }
+
+        double worst() {
+            return distances[0];
+        }
+
+        void offer(int node, double distance) {
+            if (size < nodes.length) {
+                int i = size++;
+                while (i > 0 && distances[(i - 1) / 2] < distance) {
+                    nodes[i] = nodes[(i - 1) / 2];
+                    distances[i] = distances[(i - 1) / 2];
+                    i = (i - 1) / 2;
+                }
+                nodes[i] = node;
+                distances[i] = distance;
+            } else if (distance < distances[0]) {
+                int i = 0;
+                while (true) {
+                    int child = 2 * i + 1;
+                    if (child >= size) {
+                        break;
+                    }
+                    if (child + 1 < size && distances[child + 1] > distances[child]) {
+                        child++;
+                    }
+                    if (distances[child] <= distance) {
+                        break;
+                    }
+                    nodes[i] = nodes[child];
+                    distances[i] = distances[child];
+                    i = child;
+                }
+                nodes[i] = node;
+                distances[i] = distance;
+            }
+        }
+
+        List<NearbyAirport> toSortedList(NearbyAirport[] airports) {
+            List<NearbyAirport> result = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                result.add(airports[nodes[i]].withDistance(chordToKm(distances[i])));
+            }
+            result.sort(Comparator.comparingDouble(NearbyAirport::distanceKm));
+            return result;
+        }
+    }
+}
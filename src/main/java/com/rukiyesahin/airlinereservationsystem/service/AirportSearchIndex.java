@@ -0,0 +1,153 @@
+package com.rukiyesahin.airlinereservationsystem.service;
+
+import com.rukiyesahin.airlinereservationsystem.entity.Airport;
+import com.rukiyesahin.airlinereservationsystem.repository.AirportRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+import java.util.concurrent.locks.ReentrantLock;
+
+// In-memory prefix index over airport code, city and name for typeahead search.
+// Text is folded to lower case without accents, and every word start of the city and name is
+// indexed, so "york" and "new yo" both find New York without scanning the airports table.
+@Component
+public class AirportSearchIndex {
+
+    private static final char KEY_SEPARATOR = '\u0000';
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    @Autowired
+    private AirportRepository airportRepository;
+
+    // Ranked from best to weakest match: code, then city, then name
+    private final NavigableMap<String, AirportSuggestion> codeIndex = new ConcurrentSkipListMap<>();
+    private final NavigableMap<String, AirportSuggestion> cityIndex = new ConcurrentSkipListMap<>();
+    private final NavigableMap<String, AirportSuggestion> nameIndex = new ConcurrentSkipListMap<>();
+    private final Map<Long, IndexedAirport> indexedAirports = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        lock.lock();
+        try {
+            codeIndex.clear();
+            cityIndex.clear();
+            nameIndex.clear();
+            indexedAirports.clear();
+            airportRepository.findAll().forEach(this::index);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Add or replace an airport in the index
+    public void index(Airport airport) {
+        lock.lock();
+        try {
+            remove(airport.getId());
+            AirportSuggestion suggestion = new AirportSuggestion(airport.getId(), airport.getCode(), airport.getName(),
+                    airport.getCity(), airport.getCountry());
+            List<String> codeKeys = keys(List.of(normalize(airport.getCode())), airport.getId());
+            List<String> cityKeys = keys(wordStarts(airport.getCity()), airport.getId());
+            List<String> nameKeys = keys(wordStarts(airport.getName()), airport.getId());
+            codeKeys.forEach(key -> codeIndex.put(key, suggestion));
+            cityKeys.forEach(key -> cityIndex.put(key, suggestion));
+            nameKeys.forEach(key -> nameIndex.put(key, suggestion));
+            indexedAirports.put(airport.getId(), new IndexedAirport(codeKeys, cityKeys, nameKeys));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Remove an airport from the index
+    public void remove(Long airportId) {
+        lock.lock();
+        try {
+            IndexedAirport indexed = indexedAirports.remove(airportId);
+            if (indexed != null) {
+                indexed.codeKeys().forEach(codeIndex::remove);
+                indexed.cityKeys().forEach(cityIndex::remove);
+                indexed.nameKeys().forEach(nameIndex::remove);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Up to limit airports whose code, city or name starts with the query
+    public List<AirportSuggestion> suggest(String query, int limit) {
+        String prefix = normalize(query);
+        if (prefix.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Map<Long, AirportSuggestion> results = new LinkedHashMap<>();
+        collect(codeIndex, prefix, limit, results);
+        collect(cityIndex, prefix, limit, results);
+        collect(nameIndex, prefix, limit, results);
+        return new ArrayList<>(results.values());
+    }
+
+    private static void collect(NavigableMap<String, AirportSuggestion> index, String prefix, int limit,
+                                Map<Long, AirportSuggestion> results) {
+        if (results.size() >= limit) {
+            return;
+        }
+        for (AirportSuggestion suggestion : index.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+            results.putIfAbsent(suggestion.id(), suggestion);
+            if (results.size() >= limit) {
+                return;
+            }
+        }
+    }
+
+    private static List<String> keys(List<String> tokens, Long airportId) {
+        List<String> keys = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            if (!token.isEmpty()) {
+                keys.add(token + KEY_SEPARATOR + airportId);
+            }
+        }
+        return keys;
+    }
+
+    // "Sabiha Gökçen Intl" -> ["sabiha gokcen intl", "gokcen intl", "intl"]
+    private static List<String> wordStarts(String text) {
+        String normalized = normalize(text);
+        List<String> suffixes = new ArrayList<>();
+        if (normalized.isEmpty()) {
+            return suffixes;
+        }
+        suffixes.add(normalized);
+        for (int i = normalized.indexOf(' '); i >= 0; i = normalized.indexOf(' ', i + 1)) {
+            suffixes.add(normalized.substring(i + 1));
+        }
+        return suffixes;
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return NON_ALPHANUMERIC.matcher(folded.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    public record AirportSuggestion(Long id, String code, String name, String city, String country) {
+    }
+
+    private record IndexedAirport(List<String> codeKeys, List<String> cityKeys, List<String> nameKeys) {
+    }
+}
@@ -1,51 +1,99 @@
 package com.rukiyesahin.airlinereservationsystem.service;
 
+import com.rukiyesahin.airlinereservationsystem.dto.AirportSummary;
 import com.rukiyesahin.airlinereservationsystem.entity.Airport;
+import com.rukiyesahin.airlinereservationsystem.exception.InvalidAirportDataException;
 import com.rukiyesahin.airlinereservationsystem.repository.AirportRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
 @Transactional
 public class AirportService {
 
+    private static final String PAGE_SCOPE = "airports";
+
     @Autowired
     private AirportRepository airportRepository;
 
+    @Autowired
+    private AirportCache airportCache;
+
+    @Autowired
+    private AirportSearchIndex airportSearchIndex;
+
+    @Autowired
+    private AirportGeoIndex airportGeoIndex;
+
+    @Autowired
+    private KeysetPagination keysetPagination;
+
+    @Value("${airline.search.nearby.max-results:100}")
+    private int maxNearbyResults;
+
+    @Value("${airline.search.typeahead.max-limit:50}")
+    private int maxTypeaheadLimit;
+
+    @Value("${airline.airport.major-hub-threshold:100}")
+    private long majorHubThreshold;
+
     // Create new airport
     public Airport createAirport(Airport airport) {
-        return airportRepository.save(airport);
+        Airport savedAirport = airportRepository.save(airport);
+        afterCommit(() -> {
+            airportCache.invalidate(savedAirport);
+            airportSearchIndex.index(savedAirport);
+            airportGeoIndex.index(savedAirport);
+        });
+        return savedAirport;
     }
 
     // Get airport by ID
     public Airport getAirportById(Long id) {
-        return airportRepository.findById(id)
+        return airportCache.findById(id)
                 .orElseThrow(() -> new RuntimeException("Airport not found with ID: " + id));
     }
 
     // Get airport by code
     public Airport getAirportByCode(String code) {
-        return airportRepository.findByCode(code)
+        return airportCache.findByCode(code)
                 .orElseThrow(() -> new RuntimeException("Airport not found with code: " + code));
     }
 
-    // Get all airports
-    public List<Airport> getAllAirports() {
-        return airportRepository.findAll();
+    // Get cache hit/miss metrics
+    public Map<String, Map<String, Object>> getCacheStats() {
+        return airportCache.getStats();
+    }
+
+    // Get one page of all airports
+    @Transactional(readOnly = true)
+    public CursorPage<AirportSummary> getAllAirports(String cursor, Integer size) {
+        int pageSize = keysetPagination.pageSize(size);
+        return toPage(airportRepository.findPageAfter(afterId(cursor), pageSize + 1), pageSize);
     }
 
-    // Get airports by city
-    public List<Airport> getAirportsByCity(String city) {
-        return airportRepository.findByCity(city);
+    // Get one page of airports by city
+    @Transactional(readOnly = true)
+    public CursorPage<AirportSummary> getAirportsByCity(String city, String cursor, Integer size) {
+        int pageSize = keysetPagination.pageSize(size);
+        return toPage(airportRepository.findPageByCityAfter(city, afterId(cursor), pageSize + 1), pageSize);
     }
 
-    // Get airports by country
-    public List<Airport> getAirportsByCountry(String country) {
-        return airportRepository.findByCountry(country);
+    // Get one page of airports by country
+    @Transactional(readOnly = true)
+    public CursorPage<AirportSummary> getAirportsByCountry(String country, String cursor, Integer size) {
+        int pageSize = keysetPagination.pageSize(size);
+        return toPage(airportRepository.findPageByCountryAfter(country, afterId(cursor), pageSize + 1), pageSize);
     }
 
     // Get airports by city and country
@@ -58,9 +106,30 @@ public class AirportService {
         return airportRepository.findByNameOrCityContaining(searchTerm);
     }
 
+    // Typeahead search over code, city and name from the in-memory index
+    public List<AirportSearchIndex.AirportSuggestion> suggestAirports(String query, int limit) {
+        return airportSearchIndex.suggest(query, Math.min(limit, maxTypeaheadLimit));
+    }
+
+    // Get the airports nearest to a point
+    public List<AirportGeoIndex.NearbyAirport> getNearestAirports(double latitude, double longitude, int count) {
+        validateCoordinates(latitude, longitude);
+        return airportGeoIndex.nearest(latitude, longitude, Math.min(count, maxNearbyResults));
+    }
+
+    // Get airports within a great-circle radius of a point
+    public List<AirportGeoIndex.NearbyAirport> getAirportsWithinRadius(double latitude, double longitude, double radiusKm) {
+        validateCoordinates(latitude, longitude);
+        if (radiusKm <= 0) {
+            throw new InvalidAirportDataException("Radius must be positive");
+        }
+        return airportGeoIndex.withinRadius(latitude, longitude, radiusKm, maxNearbyResults);
+    }
+
     // Search airports by name (alias for controller)
-    public List<Airport> searchAirportsByName(String name) {
-        return searchAirports(name);
+    @Transactional(readOnly = true)
+    public List<AirportSummary> searchAirportsByName(String name) {
+        return airportRepository.findSummariesByNameOrCityContaining(name);
     }
 
     // Get all countries
@@ -96,45 +165,32 @@ public class AirportService {
 
     // Get international airports
     public List<Airport> getInternationalAirports() {
-        return airportRepository.findAll().stream()
-                .filter(Airport::isInternational)
-                .toList();
+        return airportRepository.findByInternationalTrue();
     }
 
     // Get domestic airports
     public List<Airport> getDomesticAirports() {
-        return airportRepository.findAll().stream()
-                .filter(Airport::isDomestic)
-                .toList();
+        return airportRepository.findByInternationalFalse();
     }
 
     // Get major airports
     public List<Airport> getMajorAirports() {
-        return airportRepository.findAll().stream()
-                .filter(Airport::isMajorHub)
-                .toList();
+        return airportRepository.findByMajorHubTrue();
     }
 
-    // Get regional airports
+    // Get regional airports (non-major airports)
     public List<Airport> getRegionalAirports() {
-        // This would need a custom query - for now return non-major airports
-        return airportRepository.findAll().stream()
-                .filter(airport -> !airport.isMajorHub())
-                .toList();
+        return airportRepository.findByMajorHubFalse();
     }
 
-    // Get airports with customs
+    // Get airports with customs (international airports)
     public List<Airport> getAirportsWithCustoms() {
-        return airportRepository.findAll().stream()
-                .filter(Airport::hasCustoms)
-                .toList();
+        return airportRepository.findByInternationalTrue();
     }
 
-    // Get airports with immigration
+    // Get airports with immigration (international airports)
     public List<Airport> getAirportsWithImmigration() {
-        return airportRepository.findAll().stream()
-                .filter(Airport::hasImmigration)
-                .toList();
+        return airportRepository.findByInternationalTrue();
     }
 
     // Get hub airports
@@ -144,7 +200,8 @@ public class AirportService {
 
     // Update airport
     public Airport updateAirport(Long id, Airport airportDetails) {
-        Airport airport = getAirportById(id);
+        Airport airport = loadAirport(id);
+        String previousCode = airport.getCode();
 
         if (airportDetails.getCode() != null) {
             airport.setCode(airportDetails.getCode());
@@ -168,25 +225,37 @@ public class AirportService {
             airport.setLongitude(airportDetails.getLongitude());
         }
 
-        return airportRepository.save(airport);
+        Airport savedAirport = airportRepository.save(airport);
+        afterCommit(() -> {
+            airportCache.invalidate(savedAirport);
+            airportCache.invalidateCode(previousCode);
+            airportSearchIndex.index(savedAirport);
+            airportGeoIndex.index(savedAirport);
+        });
+        return savedAirport;
     }
 
     // Toggle airport status (placeholder - would need status field in entity)
     public Airport toggleAirportStatus(Long id) {
-        Airport airport = getAirportById(id);
+        Airport airport = loadAirport(id);
         // This would need a status field in the Airport entity
         return airportRepository.save(airport);
     }
 
     // Delete airport
     public void deleteAirport(Long id) {
-        Airport airport = getAirportById(id);
+        Airport airport = loadAirport(id);
         airportRepository.delete(airport);
+        afterCommit(() -> {
+            airportCache.invalidate(airport);
+            airportSearchIndex.remove(id);
+            airportGeoIndex.remove(id);
+        });
     }
 
     // Check if airport exists
     public boolean airportExists(String code) {
-        return airportRepository.findByCode(code).isPresent();
+        return airportCache.findByCode(code).isPresent();
     }
 
     // Check if airport code exists (alias for controller)
@@ -210,8 +279,58 @@ public class AirportService {
         return 0;
     }
 
+    // Count new flights against their airports and update the hub flag
+    public void recordFlights(Long departureAirportId, Long arrivalAirportId, long count) {
+        airportRepository.adjustDepartureFlightCount(departureAirportId, count, majorHubThreshold);
+        airportRepository.adjustArrivalFlightCount(arrivalAirportId, count, majorHubThreshold);
+    }
+
+    // Align hub flags with the configured threshold on startup
+    @EventListener(ApplicationReadyEvent.class)
+    public void recomputeMajorHubs() {
+        airportRepository.recomputeMajorHubs(majorHubThreshold);
+    }
+
+    private void validateCoordinates(double latitude, double longitude) {
+        if (latitude < -90 || latitude > 90) {
+            throw new InvalidAirportDataException("Latitude must be between -90 and 90");
+        }
+        if (longitude < -180 || longitude > 180) {
+            throw new InvalidAirportDataException("Longitude must be between -180 and 180");
+        }
+    }
+
+    // The cache and indexes mirror committed rows only: a reader could otherwise cache the old row again
+    // before the write commits, or find an airport whose insert is rolled back
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    // Load a managed airport for modification, bypassing the cache
+    private Airport loadAirport(Long id) {
+        return airportRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Airport not found with ID: " + id));
+    }
+
     // Get airports by country ordered by city
     public List<Airport> getAirportsByCountryOrderByCity(String country) {
         return airportRepository.findByCountryOrderByCity(country);
     }
-}
\ No newline at end of file
+
+    private Long afterId(String cursor) {
+        return cursor == null || cursor.isBlank() ? 0L : keysetPagination.decodeId(PAGE_SCOPE, cursor);
+    }
+
+    private CursorPage<AirportSummary> toPage(List<AirportSummary> rows, int pageSize) {
+        return keysetPagination.page(rows, pageSize, airport -> keysetPagination.encodeId(PAGE_SCOPE, airport.id()));
+    }
+}
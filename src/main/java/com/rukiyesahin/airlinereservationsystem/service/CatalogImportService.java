@@ -0,0 +1,405 @@
+package com.rukiyesahin.airlinereservationsystem.service;
+
+import com.rukiyesahin.airlinereservationsystem.entity.Aircraft;
+import com.rukiyesahin.airlinereservationsystem.entity.Airport;
+import com.rukiyesahin.airlinereservationsystem.exception.InvalidAircraftDataException;
+import com.rukiyesahin.airlinereservationsystem.exception.InvalidAirportDataException;
+import com.rukiyesahin.airlinereservationsystem.repository.AircraftRepository;
+import com.rukiyesahin.airlinereservationsystem.repository.AirportRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Idempotent bulk upsert of the airport and aircraft catalogs from CSV, keyed on airport code and
+// aircraft registration. Each chunk of rows is diffed against the rows already stored under the same
+// keys, and only new rows and changed columns are written, so re-importing an unchanged file reads
+// the catalog but writes nothing. Optional columns missing from the header are left untouched.
+@Service
+public class CatalogImportService {
+
+    private static final List<String> AIRPORT_COLUMNS = List.of("code", "name", "city", "country");
+    private static final List<String> AIRCRAFT_COLUMNS = List.of("registration", "type", "manufacturer", "model");
+
+    @Autowired
+    private AirportRepository airportRepository;
+
+    @Autowired
+    private AircraftRepository aircraftRepository;
+
+    @Autowired
+    private AirportCache airportCache;
+
+    @Autowired
+    private AirportSearchIndex airportSearchIndex;
+
+    @Autowired
+    private AirportGeoIndex airportGeoIndex;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${airline.import.batch-size:500}")
+    private int defaultBatchSize;
+
+    @Value("${airline.import.max-batch-size:5000}")
+    private int maxBatchSize;
+
+    @Value("${airline.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    // Insert new airports and update changed ones
+    public UpsertReport upsertAirports(InputStream in, Integer batchSize) {
+        UpsertReport report = upsert(in, batchSize, new AirportCatalog());
+        // Cached airports and both search indexes hold copies of the rows just written
+        if (report.inserted() + report.updated() > 0) {
+            airportCache.invalidateAll();
+            airportSearchIndex.reload();
+            airportGeoIndex.reload();
+        }
+        return report;
+    }
+
+    // Insert new aircraft and update changed ones
+    public UpsertReport upsertAircraft(InputStream in, Integer batchSize) {
+        return upsert(in, batchSize, new AircraftCatalog());
+    }
+
+    private <T> UpsertReport upsert(InputStream in, Integer batchSize, Catalog<T> catalog) {
+        int chunkSize = batchSize == null ? defaultBatchSize : batchSize;
+        if (chunkSize < 1 || chunkSize > maxBatchSize) {
+            throw catalog.error("Batch size must be between 1 and " + maxBatchSize);
+        }
+        long started = System.nanoTime();
+        Progress progress = new Progress();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            CsvHeader header = CsvHeader.parse(reader.readLine(), catalog.requiredColumns(), catalog::error);
+            List<Line> chunk = new ArrayList<>(chunkSize);
+            int lineNumber = 1;
+            String text;
+            while ((text = reader.readLine()) != null) {
+                lineNumber++;
+                if (text.isBlank()) {
+                    continue;
+                }
+                chunk.add(new Line(lineNumber, text));
+                if (chunk.size() == chunkSize) {
+                    upsertChunk(chunk, header, catalog, progress);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                upsertChunk(chunk, header, catalog, progress);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        long elapsedNanos = System.nanoTime() - started;
+        int rows = progress.inserted + progress.updated + progress.unchanged + progress.failed;
+        return new UpsertReport(rows, progress.inserted, progress.updated, progress.unchanged, progress.failed,
+                chunkSize, elapsedNanos / 1_000_000, elapsedNanos == 0 ? 0 : rows * 1e9 / elapsedNanos, progress.errors);
+    }
+
+    private <T> void upsertChunk(List<Line> lines, CsvHeader header, Catalog<T> catalog, Progress progress) {
+        List<ParsedRow<T>> rows = lines.parallelStream()
+                .map(line -> parse(line, header, catalog))
+                .toList();
+
+        List<ParsedRow<T>> valid = new ArrayList<>(rows.size());
+        for (ParsedRow<T> row : rows) {
+            if (row.error() != null) {
+                progress.fail(row.line(), row.key(), row.error(), maxReportedErrors);
+            } else if (!progress.keys.add(row.key())) {
+                progress.fail(row.line(), row.key(), "Duplicate key in file: " + row.key(), maxReportedErrors);
+            } else {
+                valid.add(row);
+            }
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        try {
+            int[] counts = new TransactionTemplate(transactionManager).execute(status -> write(valid, header, catalog));
+            progress.inserted += counts[0];
+            progress.updated += counts[1];
+            progress.unchanged += counts[2];
+        } catch (RuntimeException e) {
+            for (ParsedRow<T> row : valid) {
+                progress.fail(row.line(), row.key(), "Batch rolled back: " + e.getMessage(), maxReportedErrors);
+            }
+        }
+    }
+
+    // Diff one chunk against the stored rows with the same keys; returns inserted, updated, unchanged
+    private <T> int[] write(List<ParsedRow<T>> rows, CsvHeader header, Catalog<T> catalog) {
+        Map<String, T> existing = catalog.findExisting(rows.stream().map(ParsedRow::key).toList()).stream()
+                .collect(Collectors.toMap(catalog::key, Function.identity()));
+        int[] counts = new int[3];
+        for (ParsedRow<T> row : rows) {
+            T stored = existing.get(row.key());
+            if (stored == null) {
+                entityManager.persist(row.entity());
+                counts[0]++;
+            } else if (catalog.copyChanges(header, row.entity(), stored)) {
+                // Dirty checking writes the update when the chunk is flushed
+                counts[1]++;
+            } else {
+                counts[2]++;
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return counts;
+    }
+
+    private <T> ParsedRow<T> parse(Line line, CsvHeader header, Catalog<T> catalog) {
+        String[] fields = CsvHeader.split(line.text());
+        String key = catalog.normalizeKey(header.get(fields, catalog.requiredColumns().get(0)));
+        try {
+            T entity = catalog.parse(header, fields);
+            Set<ConstraintViolation<T>> violations = validator.validate(entity);
+            if (!violations.isEmpty()) {
+                throw catalog.error(violations.iterator().next().getMessage());
+            }
+            return new ParsedRow<>(line.number(), key, entity, null);
+        } catch (RuntimeException e) {
+            return new ParsedRow<>(line.number(), key, null, e.getMessage());
+        }
+    }
+
+    // Sets a column only when its value differs from the stored one
+    private static <V> boolean update(V current, V incoming, Consumer<V> setter) {
+        if (Objects.equals(current, incoming)) {
+            return false;
+        }
+        setter.accept(incoming);
+        return true;
+    }
+
+    // How one catalog is parsed, looked up by key and diffed; the first required column is the key
+    private interface Catalog<T> {
+        List<String> requiredColumns();
+
+        String normalizeKey(String key);
+
+        String key(T entity);
+
+        T parse(CsvHeader header, String[] fields);
+
+        List<T> findExisting(Collection<String> keys);
+
+        // Copy columns present in the header from incoming to stored; true if anything changed
+        boolean copyChanges(CsvHeader header, T incoming, T stored);
+
+        RuntimeException error(String message);
+    }
+
+    private class AirportCatalog implements Catalog<Airport> {
+
+        @Override
+        public List<String> requiredColumns() {
+            return AIRPORT_COLUMNS;
+        }
+
+        // Codes are stored upper case, as flight imports look them up
+        @Override
+        public String normalizeKey(String key) {
+            return key == null ? null : key.toUpperCase(Locale.ROOT);
+        }
+
+        @Override
+        public String key(Airport airport) {
+            return airport.getCode();
+        }
+
+        @Override
+        public Airport parse(CsvHeader header, String[] fields) {
+            Airport airport = new Airport(normalizeKey(header.get(fields, "code")), header.get(fields, "name"),
+                    header.get(fields, "city"), header.get(fields, "country"));
+            airport.setTimezone(header.get(fields, "timezone"));
+            airport.setLatitude(header.getDouble(fields, "latitude"));
+            airport.setLongitude(header.getDouble(fields, "longitude"));
+            if (airport.getLatitude() != null && (airport.getLatitude() < -90 || airport.getLatitude() > 90)) {
+                throw error("Latitude must be between -90 and 90");
+            }
+            if (airport.getLongitude() != null && (airport.getLongitude() < -180 || airport.getLongitude() > 180)) {
+                throw error("Longitude must be between -180 and 180");
+            }
+            return airport;
+        }
+
+        @Override
+        public List<Airport> findExisting(Collection<String> codes) {
+            return airportRepository.findByCodeIn(List.copyOf(codes));
+        }
+
+        @Override
+        public boolean copyChanges(CsvHeader header, Airport incoming, Airport stored) {
+            boolean changed = update(stored.getName(), incoming.getName(), stored::setName);
+            changed |= update(stored.getCity(), incoming.getCity(), stored::setCity);
+            changed |= update(stored.getCountry(), incoming.getCountry(), stored::setCountry);
+            if (header.has("timezone")) {
+                changed |= update(stored.getTimezone(), incoming.getTimezone(), stored::setTimezone);
+            }
+            if (header.has("latitude")) {
+                changed |= update(stored.getLatitude(), incoming.getLatitude(), stored::setLatitude);
+            }
+            if (header.has("longitude")) {
+                changed |= update(stored.getLongitude(), incoming.getLongitude(), stored::setLongitude);
+            }
+            return changed;
+        }
+
+        @Override
+        public RuntimeException error(String message) {
+            return new InvalidAirportDataException(message);
+        }
+    }
+
+    private class AircraftCatalog implements Catalog<Aircraft> {
+
+        @Override
+        public List<String> requiredColumns() {
+            return AIRCRAFT_COLUMNS;
+        }
+
+        @Override
+        public String normalizeKey(String key) {
+            return key;
+        }
+
+        @Override
+        public String key(Aircraft aircraft) {
+            return aircraft.getRegistration();
+        }
+
+        // An empty status cell means ACTIVE, the default for new aircraft
+        @Override
+        public Aircraft parse(CsvHeader header, String[] fields) {
+            Aircraft aircraft = new Aircraft();
+            aircraft.setRegistration(header.get(fields, "registration"));
+            aircraft.setType(header.get(fields, "type"));
+            aircraft.setManufacturer(header.get(fields, "manufacturer"));
+            aircraft.setModel(header.get(fields, "model"));
+            aircraft.setTotalSeats(header.getInteger(fields, "totalSeats"));
+            aircraft.setEconomySeats(header.getInteger(fields, "economySeats"));
+            aircraft.setBusinessSeats(header.getInteger(fields, "businessSeats"));
+            aircraft.setFirstClassSeats(header.getInteger(fields, "firstClassSeats"));
+            aircraft.setYearOfManufacture(header.getInteger(fields, "yearOfManufacture"));
+            aircraft.setLastMaintenance(header.getDateTime(fields, "lastMaintenance"));
+            aircraft.setNextMaintenance(header.getDateTime(fields, "nextMaintenance"));
+            Aircraft.AircraftStatus status = header.getEnum(fields, "status", Aircraft.AircraftStatus.class);
+            if (status != null) {
+                aircraft.setStatus(status);
+            }
+            return aircraft;
+        }
+
+        @Override
+        public List<Aircraft> findExisting(Collection<String> registrations) {
+            return aircraftRepository.findByRegistrationIn(registrations);
+        }
+
+        @Override
+        public boolean copyChanges(CsvHeader header, Aircraft incoming, Aircraft stored) {
+            boolean changed = update(stored.getType(), incoming.getType(), stored::setType);
+            changed |= update(stored.getManufacturer(), incoming.getManufacturer(), stored::setManufacturer);
+            changed |= update(stored.getModel(), incoming.getModel(), stored::setModel);
+            if (header.has("totalSeats")) {
+                changed |= update(stored.getTotalSeats(), incoming.getTotalSeats(), stored::setTotalSeats);
+            }
+            if (header.has("economySeats")) {
+                changed |= update(stored.getEconomySeats(), incoming.getEconomySeats(), stored::setEconomySeats);
+            }
+            if (header.has("businessSeats")) {
+                changed |= update(stored.getBusinessSeats(), incoming.getBusinessSeats(), stored::setBusinessSeats);
+            }
+            if (header.has("firstClassSeats")) {
+                changed |= update(stored.getFirstClassSeats(), incoming.getFirstClassSeats(), stored::setFirstClassSeats);
+            }
+            if (header.has("yearOfManufacture")) {
+                changed |= update(stored.getYearOfManufacture(), incoming.getYearOfManufacture(), stored::setYearOfManufacture);
+            }
+            if (header.has("lastMaintenance")) {
+                changed |= update(stored.getLastMaintenance(), incoming.getLastMaintenance(), stored::setLastMaintenance);
+            }
+            if (header.has("nextMaintenance")) {
+                changed |= update(stored.getNextMaintenance(), incoming.getNextMaintenance(), stored::setNextMaintenance);
+            }
+            if (header.has("status")) {
+                changed |= update(stored.getStatus(), incoming.getStatus(), stored::setStatus);
+            }
+            return changed;
+        }
+
+        @Override
+        public RuntimeException error(String message) {
+            return new InvalidAircraftDataException(message);
+        }
+    }
+
+    private record Line(int number, String text) {}
+
+    private record ParsedRow<T>(int line, String key, T entity, String error) {}
+
+    private static class Progress {
+        private final Set<String> keys = new HashSet<>();
+        private final List<RowError> errors = new ArrayList<>();
+        private int inserted;
+        private int updated;
+        private int unchanged;
+        private int failed;
+
+        void fail(int line, String key, String message, int maxReportedErrors) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new RowError(line, key, message));
+            }
+        }
+    }
+
+    public record RowError(int line, String key, String message) {}
+
+    // Outcome of one upsert; errors holds at most airline.import.max-reported-errors rows
+    public record UpsertReport(int rows,
+                               int inserted,
+                               int updated,
+                               int unchanged,
+                               int failed,
+                               int batchSize,
+                               long elapsedMs,
+                               double rowsPerSecond,
+                               List<RowError> errors) {}
+}
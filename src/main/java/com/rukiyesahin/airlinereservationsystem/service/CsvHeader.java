@@ -0,0 +1,108 @@
+package com.rukiyesahin.airlinereservationsystem.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+// Column positions from the header row of an import file. Names are matched case-insensitively,
+// and bad values are reported through the exception type of the entity being imported.
+final class CsvHeader {
+
+    private final Map<String, Integer> positions;
+    private final Function<String, ? extends RuntimeException> error;
+
+    private CsvHeader(Map<String, Integer> positions, Function<String, ? extends RuntimeException> error) {
+        this.positions = positions;
+        this.error = error;
+    }
+
+    static CsvHeader parse(String header, List<String> requiredColumns, Function<String, ? extends RuntimeException> error) {
+        if (header == null || header.isBlank()) {
+            throw error.apply("Import file must start with a header row");
+        }
+        Map<String, Integer> positions = new HashMap<>();
+        String[] names = split(header);
+        for (int i = 0; i < names.length; i++) {
+            positions.put(names[i].trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String column : requiredColumns) {
+            if (!positions.containsKey(column.toLowerCase(Locale.ROOT))) {
+                throw error.apply("Missing column: " + column);
+            }
+        }
+        return new CsvHeader(positions, error);
+    }
+
+    static String[] split(String line) {
+        return line.split(",", -1);
+    }
+
+    boolean has(String column) {
+        return positions.containsKey(column.toLowerCase(Locale.ROOT));
+    }
+
+    // Trimmed value, or null when the column is absent or the cell is empty
+    String get(String[] fields, String column) {
+        Integer position = positions.get(column.toLowerCase(Locale.ROOT));
+        if (position == null || position >= fields.length) {
+            return null;
+        }
+        String value = fields[position].trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    Integer getInteger(String[] fields, String column) {
+        String value = get(fields, column);
+        try {
+            return value == null ? null : Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw invalid(column, value);
+        }
+    }
+
+    Double getDouble(String[] fields, String column) {
+        String value = get(fields, column);
+        try {
+            return value == null ? null : Double.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw invalid(column, value);
+        }
+    }
+
+    BigDecimal getDecimal(String[] fields, String column) {
+        String value = get(fields, column);
+        try {
+            return value == null ? null : new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw invalid(column, value);
+        }
+    }
+
+    // ISO-8601 local date-time, e.g. 2025-06-01T08:30
+    LocalDateTime getDateTime(String[] fields, String column) {
+        String value = get(fields, column);
+        try {
+            return value == null ? null : LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw invalid(column, value);
+        }
+    }
+
+    <E extends Enum<E>> E getEnum(String[] fields, String column, Class<E> type) {
+        String value = get(fields, column);
+        try {
+            return value == null ? null : Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw invalid(column, value);
+        }
+    }
+
+    private RuntimeException invalid(String column, String value) {
+        return error.apply("Invalid " + column + ": " + value);
+    }
+}
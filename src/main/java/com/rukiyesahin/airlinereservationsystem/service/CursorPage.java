@@ -0,0 +1,7 @@
+package com.rukiyesahin.airlinereservationsystem.service;
+
+import java.util.List;
+
+// One page of a keyset-paginated listing; pass nextCursor back as ?cursor= to get the next page
+public record CursorPage<T>(List<T> items, String nextCursor, boolean hasMore) {
+}
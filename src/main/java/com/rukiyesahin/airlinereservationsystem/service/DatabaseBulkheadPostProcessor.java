@@ -0,0 +1,170 @@
+package com.rukiyesahin.airlinereservationsystem.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Semaphore bulkhead in front of the connection pool. With virtual threads nothing bounds the
+// number of requests in flight, so thousands of them would queue inside the pool until its
+// 30 second timeout; here at most max-concurrent callers hold a connection, and the rest wait
+// up to acquire-timeout-ms in a fair queue before failing fast with a 503.
+@Component
+@ConditionalOnProperty(name = "airline.db.bulkhead.enabled", havingValue = "true")
+public class DatabaseBulkheadPostProcessor implements BeanPostProcessor, SmartInitializingSingleton {
+
+    private final int maxConcurrent;
+    private final long acquireTimeoutMs;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final List<BulkheadDataSource> bulkheads = new ArrayList<>();
+
+    public DatabaseBulkheadPostProcessor(
+            @Value("${airline.db.bulkhead.max-concurrent:${spring.datasource.hikari.maximum-pool-size:10}}") int maxConcurrent,
+            @Value("${airline.db.bulkhead.acquire-timeout-ms:2000}") long acquireTimeoutMs,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        this.maxConcurrent = maxConcurrent;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof BulkheadDataSource)) {
+            BulkheadDataSource bulkhead = new BulkheadDataSource(dataSource, maxConcurrent, acquireTimeoutMs);
+            bulkheads.add(bulkhead);
+            return bulkhead;
+        }
+        return bean;
+    }
+
+    // Meters are registered once every bean exists, the registry is not available this early
+    @Override
+    public void afterSingletonsInstantiated() {
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry == null) {
+            return;
+        }
+        for (BulkheadDataSource bulkhead : bulkheads) {
+            Gauge.builder("airline.db.bulkhead.in.use", bulkhead, BulkheadDataSource::inUse)
+                    .description("Connections currently held through the bulkhead")
+                    .register(registry);
+            Gauge.builder("airline.db.bulkhead.waiting", bulkhead, BulkheadDataSource::waiting)
+                    .description("Callers queued for a bulkhead permit")
+                    .register(registry);
+            FunctionCounter.builder("airline.db.bulkhead.rejected", bulkhead, BulkheadDataSource::rejected)
+                    .description("Connection requests that timed out waiting for a permit")
+                    .register(registry);
+        }
+    }
+
+    static final class BulkheadDataSource extends DelegatingDataSource {
+        private final Semaphore permits;
+        private final int maxConcurrent;
+        private final long acquireTimeoutMs;
+        private final AtomicLong rejected = new AtomicLong();
+
+        BulkheadDataSource(DataSource target, int maxConcurrent, long acquireTimeoutMs) {
+            super(target);
+            this.permits = new Semaphore(maxConcurrent, true);
+            this.maxConcurrent = maxConcurrent;
+            this.acquireTimeoutMs = acquireTimeoutMs;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            acquire();
+            return guarded(() -> super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            acquire();
+            return guarded(() -> super.getConnection(username, password));
+        }
+
+        private void acquire() throws SQLException {
+            try {
+                if (!permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                    rejected.incrementAndGet();
+                    throw new SQLTransientConnectionException("Database bulkhead full: " + maxConcurrent
+                            + " connections in use, waited " + acquireTimeoutMs + " ms");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLTransientConnectionException("Interrupted waiting for a database connection", e);
+            }
+        }
+
+        // The permit goes back when the connection is closed, or straight away if the pool fails
+        private Connection guarded(ConnectionSupplier supplier) throws SQLException {
+            Connection connection;
+            try {
+                connection = supplier.get();
+            } catch (SQLException | RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+            AtomicBoolean released = new AtomicBoolean();
+            return (Connection) Proxy.newProxyInstance(DatabaseBulkheadPostProcessor.class.getClassLoader(),
+                    new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "equals":
+                                return proxy == args[0];
+                            case "hashCode":
+                                return System.identityHashCode(proxy);
+                            case "close":
+                                if (released.compareAndSet(false, true)) {
+                                    try {
+                                        connection.close();
+                                    } finally {
+                                        permits.release();
+                                    }
+                                }
+                                return null;
+                            default:
+                                try {
+                                    return method.invoke(connection, args);
+                                } catch (InvocationTargetException ex) {
+                                    throw ex.getCause();
+                                }
+                        }
+                    });
+        }
+
+        double inUse() {
+            return maxConcurrent - permits.availablePermits();
+        }
+
+        double waiting() {
+            return permits.getQueueLength();
+        }
+
+        double rejected() {
+            return rejected.get();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSupplier {
+        Connection get() throws SQLException;
+    }
+}
@@ -0,0 +1,119 @@
+package com.rukiyesahin.airlinereservationsystem.service;
+
+import com.rukiyesahin.airlinereservationsystem.dto.FlightEvent;
+import com.rukiyesahin.airlinereservationsystem.dto.ImpactedBooking;
+import com.rukiyesahin.airlinereservationsystem.entity.Flight;
+import com.rukiyesahin.airlinereservationsystem.exception.FlightNotAvailableException;
+import com.rukiyesahin.airlinereservationsystem.exception.FlightNotFoundException;
+import com.rukiyesahin.airlinereservationsystem.exception.InvalidFlightDataException;
+import com.rukiyesahin.airlinereservationsystem.repository.BookingRepository;
+import com.rukiyesahin.airlinereservationsystem.repository.FlightRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Delays a flight and pushes the knock-on delay down its aircraft's rotation. Each later flight
+// of the aircraft has to wait until the previous one has arrived and turned around; the delay
+// shrinks by the slack in each turnaround and stops at the first flight that still departs on
+// time. Every shifted flight is written in the same transaction.
+@Service
+@Transactional
+public class DelayPropagationService {
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private SeatInventory seatInventory;
+
+    @Autowired
+    private ItinerarySearchService itinerarySearchService;
+
+    @Autowired
+    private AircraftRotationIndex aircraftRotationIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Delay a flight and every later flight of its aircraft that can no longer leave on time
+    public Propagation delayWithRotation(Long flightId, Duration delay) {
+        if (delay.isNegative() || delay.isZero()) {
+            throw new InvalidFlightDataException("Delay must be positive");
+        }
+        Flight root = flightRepository.findById(flightId)
+                .orElseThrow(() -> new FlightNotFoundException("Flight not found with ID: " + flightId));
+        if (!root.canBeDelayed()) {
+            throw new FlightNotAvailableException("Flight cannot be delayed");
+        }
+
+        List<DelayedFlight> delayed = new ArrayList<>();
+        List<Flight> changed = new ArrayList<>();
+        LocalDateTime originalDeparture = root.getDepartureTime();
+        shift(root, delay, delayed, changed);
+
+        if (root.getAircraft() != null) {
+            Duration turnaround = aircraftRotationIndex.getTurnaround();
+            LocalDateTime readyAt = root.getArrivalTime().plus(turnaround);
+            for (Flight next : flightRepository.findByAircraftIdAndDepartureTimeAfterOrderByDepartureTimeAscIdAsc(
+                    root.getAircraft().getId(), originalDeparture)) {
+                if (next.getId().equals(root.getId()) || !isMovable(next)) {
+                    continue;
+                }
+                if (!next.getDepartureTime().isBefore(readyAt)) {
+                    // The slack in this turnaround absorbs what is left of the delay
+                    break;
+                }
+                shift(next, Duration.between(next.getDepartureTime(), readyAt), delayed, changed);
+                readyAt = next.getArrivalTime().plus(turnaround);
+            }
+        }
+
+        // One batched round of updates at flush
+        flightRepository.saveAll(changed);
+        for (Flight flight : changed) {
+            aircraftRotationIndex.refresh(flight);
+            itinerarySearchService.refresh(flight);
+            eventPublisher.publishEvent(FlightEvent.of(FlightEvent.Type.DELAYED, flight));
+        }
+        List<ImpactedBooking> bookings = bookingRepository.findImpactedBookings(
+                changed.stream().map(Flight::getId).toList());
+        return new Propagation(flightId, delayed, bookings);
+    }
+
+    private void shift(Flight flight, Duration delay, List<DelayedFlight> delayed, List<Flight> changed) {
+        LocalDateTime previousDeparture = flight.getDepartureTime();
+        flight.setDepartureTime(flight.getDepartureTime().plus(delay));
+        flight.setArrivalTime(flight.getArrivalTime().plus(delay));
+        flight.setStatus(Flight.FlightStatus.DELAYED);
+        seatInventory.sync(flight);
+        changed.add(flight);
+        delayed.add(new DelayedFlight(flight.getId(), flight.getFlightNumber(), previousDeparture,
+                flight.getDepartureTime(), flight.getArrivalTime(), delay.toMinutes()));
+    }
+
+    // Only flights still on the ground and not cancelled can be pushed back
+    private static boolean isMovable(Flight flight) {
+        return flight.getStatus() == Flight.FlightStatus.SCHEDULED || flight.getStatus() == Flight.FlightStatus.DELAYED;
+    }
+
+    public record DelayedFlight(Long flightId,
+                                String flightNumber,
+                                LocalDateTime previousDeparture,
+                                LocalDateTime departureTime,
+                                LocalDateTime arrivalTime,
+                                long delayMinutes) {}
+
+    // Every flight that moved, the delayed flight first, and the bookings on them
+    public record Propagation(Long flightId,
+                              List<DelayedFlight> flights,
+                              List<ImpactedBooking> bookings) {}
+}
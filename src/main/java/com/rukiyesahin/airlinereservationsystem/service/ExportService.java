@@ -0,0 +1,87 @@
+package com.rukiyesahin.airlinereservationsystem.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.rukiyesahin.airlinereservationsystem.repository.AircraftRepository;
+import com.rukiyesahin.airlinereservationsystem.repository.FlightRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+// Writes full flight and aircraft listings as newline-delimited JSON.
+// Rows come from a database cursor and are serialised and detached one at a time, so an export
+// holds one fetch-size chunk in memory however many rows the table has.
+@Service
+public class ExportService {
+
+    public static final String NDJSON_VALUE = "application/x-ndjson";
+    public static final MediaType NDJSON = MediaType.parseMediaType(NDJSON_VALUE);
+
+    private static final byte NEWLINE = '\n';
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private AircraftRepository aircraftRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${airline.export.flush-every-rows:500}")
+    private int flushEveryRows;
+
+    // Write every flight, ordered by departure time
+    public void writeFlights(OutputStream out) {
+        write(flightRepository::streamAll, out);
+    }
+
+    // Write every aircraft, ordered by id
+    public void writeAircraft(OutputStream out) {
+        write(aircraftRepository::streamAll, out);
+    }
+
+    // The stream's cursor only lives as long as the transaction, so the whole export runs inside one
+    private void write(Supplier<Stream<?>> rows, OutputStream out) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        ObjectWriter writer = objectMapper.writer();
+        transaction.executeWithoutResult(status -> {
+            try (Stream<?> stream = rows.get()) {
+                int written = 0;
+                for (Iterator<?> iterator = stream.iterator(); iterator.hasNext(); ) {
+                    Object row = iterator.next();
+                    out.write(writer.writeValueAsBytes(row));
+                    out.write(NEWLINE);
+                    entityManager.detach(row);
+                    if (++written % flushEveryRows == 0) {
+                        // Drop the airports and aircraft fetched with the rows as well
+                        entityManager.clear();
+                        out.flush();
+                    }
+                }
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+}
@@ -0,0 +1,336 @@
+package com.rukiyesahin.airlinereservationsystem.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rukiyesahin.airlinereservationsystem.dto.FlightEvent;
+import com.rukiyesahin.airlinereservationsystem.exception.SubscriberLimitExceededException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+// Fans flight changes out to server-sent event subscribers. Each committed change is serialised
+// once and offered to the subscribers indexed under its flight and airports; every subscriber
+// has a bounded queue drained by a small sender pool, and one whose queue overflows is evicted
+// so a slow dashboard never holds up the writer or the other subscribers. A send that blocks
+// past its deadline evicts the subscriber too, and an extra sender stands in for the stuck thread.
+@Service
+public class FlightEventBroadcaster {
+
+    private static final long IDLE = Long.MIN_VALUE;
+    private static final long STALLED = Long.MAX_VALUE;
+
+    private final ObjectMapper objectMapper;
+    private final int subscriberBuffer;
+    private final int maxSubscribers;
+    private final long timeoutMs;
+    private final long sendTimeoutNanos;
+    private final ThreadPoolExecutor senders;
+    private final ReentrantLock resizeLock = new ReentrantLock();
+
+    private final Set<Subscriber> allFlights = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Set<Subscriber>> byFlight = new ConcurrentHashMap<>();
+    private final Map<String, Set<Subscriber>> byAirport = new ConcurrentHashMap<>();
+    private final Set<Subscriber> sending = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong evicted = new AtomicLong();
+
+    public FlightEventBroadcaster(ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${airline.events.subscriber-buffer:64}") int subscriberBuffer,
+                                  @Value("${airline.events.max-subscribers:10000}") int maxSubscribers,
+                                  @Value("${airline.events.timeout-ms:1800000}") long timeoutMs,
+                                  @Value("${airline.events.sender-threads:4}") int senderThreads,
+                                  @Value("${airline.events.send-timeout-ms:5000}") long sendTimeoutMs) {
+        this.objectMapper = objectMapper;
+        this.subscriberBuffer = subscriberBuffer;
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMs = timeoutMs;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.senders = new ThreadPoolExecutor(senderThreads, senderThreads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), task -> {
+            Thread thread = new Thread(task, "flight-events-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("airline.events.subscribers", subscribers, AtomicInteger::get)
+                .description("Open flight event streams")
+                .register(meterRegistry);
+        FunctionCounter.builder("airline.events.published", published, AtomicLong::get)
+                .description("Flight events broadcast to at least one subscriber")
+                .register(meterRegistry);
+        FunctionCounter.builder("airline.events.evicted", evicted, AtomicLong::get)
+                .description("Subscribers dropped because their event buffer overflowed or a send stalled")
+                .register(meterRegistry);
+    }
+
+    // Open a stream of every change, or only those for one flight and/or one airport
+    public SseEmitter subscribe(Long flightId, String airportCode) {
+        if (subscribers.incrementAndGet() > maxSubscribers) {
+            subscribers.decrementAndGet();
+            throw new SubscriberLimitExceededException("Too many flight event subscribers, limit is " + maxSubscribers);
+        }
+        String airport = airportCode == null || airportCode.isBlank() ? null : airportCode.trim().toUpperCase(Locale.ROOT);
+        Subscriber subscriber = new Subscriber(new SseEmitter(timeoutMs), flightId, airport);
+        subscriber.emitter.onCompletion(() -> remove(subscriber));
+        subscriber.emitter.onTimeout(() -> remove(subscriber));
+        subscriber.emitter.onError(error -> remove(subscriber));
+        indexFor(subscriber).add(subscriber);
+        // Commits the response headers, so the client knows the stream is open before any change
+        subscriber.offer(Message.comment("subscribed"));
+        return subscriber.emitter;
+    }
+
+    // Runs after the changing transaction commits, or straight away when there is none
+    @TransactionalEventListener(fallbackExecution = true)
+    public void broadcast(FlightEvent event) {
+        if (subscribers.get() == 0) {
+            return;
+        }
+        Message message = new Message(sequence.incrementAndGet(), event.type().name(), toJson(event));
+        boolean delivered = offerAll(allFlights, event, message);
+        delivered |= offerAll(byFlight.get(event.flightId()), event, message);
+        if (event.departureCode() != null) {
+            delivered |= offerAll(byAirport.get(event.departureCode()), event, message);
+        }
+        if (event.arrivalCode() != null && !Objects.equals(event.arrivalCode(), event.departureCode())) {
+            delivered |= offerAll(byAirport.get(event.arrivalCode()), event, message);
+        }
+        if (delivered) {
+            published.incrementAndGet();
+        }
+    }
+
+    // Idle streams get a comment now and then, which keeps proxies from closing them
+    // and finds clients that went away without closing the connection
+    @Scheduled(fixedDelayString = "${airline.events.heartbeat-ms:15000}")
+    public void heartbeat() {
+        Message message = Message.comment("heartbeat");
+        forEachSubscriber(subscriber -> subscriber.offer(message));
+    }
+
+    // A send blocked past the deadline means the client stopped reading: the subscriber is evicted
+    // and the pool grows by one until that write fails, so the other subscribers keep being served
+    @Scheduled(fixedDelayString = "${airline.events.stall-check-ms:1000}")
+    public void evictStalled() {
+        long now = System.nanoTime();
+        sending.forEach(subscriber -> subscriber.checkStalled(now));
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.get();
+    }
+
+    // Streams never finish on their own, so they are closed before graceful shutdown waits for open requests
+    @EventListener(ContextClosedEvent.class)
+    public void shutdown() {
+        senders.shutdownNow();
+        forEachSubscriber(subscriber -> subscriber.emitter.complete());
+    }
+
+    private void forEachSubscriber(Consumer<Subscriber> action) {
+        allFlights.forEach(action);
+        byFlight.values().forEach(index -> index.forEach(action));
+        byAirport.values().forEach(index -> index.forEach(action));
+    }
+
+    private boolean offerAll(Set<Subscriber> index, FlightEvent event, Message message) {
+        if (index == null) {
+            return false;
+        }
+        boolean delivered = false;
+        for (Subscriber subscriber : index) {
+            if (subscriber.matches(event)) {
+                subscriber.offer(message);
+                delivered = true;
+            }
+        }
+        return delivered;
+    }
+
+    // A flight filter is the narrower index; the airport filter is then checked per event
+    private Set<Subscriber> indexFor(Subscriber subscriber) {
+        if (subscriber.flightId != null) {
+            return byFlight.computeIfAbsent(subscriber.flightId, id -> ConcurrentHashMap.newKeySet());
+        }
+        if (subscriber.airportCode != null) {
+            return byAirport.computeIfAbsent(subscriber.airportCode, code -> ConcurrentHashMap.newKeySet());
+        }
+        return allFlights;
+    }
+
+    private boolean remove(Subscriber subscriber) {
+        if (!subscriber.closed.compareAndSet(false, true)) {
+            return false;
+        }
+        subscribers.decrementAndGet();
+        if (subscriber.flightId != null) {
+            byFlight.computeIfPresent(subscriber.flightId, (id, index) -> index.remove(subscriber) && index.isEmpty() ? null : index);
+        } else if (subscriber.airportCode != null) {
+            byAirport.computeIfPresent(subscriber.airportCode, (code, index) -> index.remove(subscriber) && index.isEmpty() ? null : index);
+        } else {
+            allFlights.remove(subscriber);
+        }
+        return true;
+    }
+
+    private void resizeSenders(int delta) {
+        resizeLock.lock();
+        try {
+            int size = senders.getCorePoolSize() + delta;
+            // The maximum may never drop below the core size, so the order depends on the direction
+            if (delta > 0) {
+                senders.setMaximumPoolSize(size);
+                senders.setCorePoolSize(size);
+            } else {
+                senders.setCorePoolSize(size);
+                senders.setMaximumPoolSize(size);
+            }
+        } finally {
+            resizeLock.unlock();
+        }
+    }
+
+    private String toJson(FlightEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private record Message(long id, String name, String data) {
+        static Message comment(String text) {
+            return new Message(0, null, text);
+        }
+
+        SseEmitter.SseEventBuilder toEvent() {
+            if (name == null) {
+                return SseEmitter.event().comment(data);
+            }
+            return SseEmitter.event().id(Long.toString(id)).name(name).data(data);
+        }
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final Long flightId;
+        private final String airportCode;
+        private final BlockingQueue<Message> queue = new ArrayBlockingQueue<>(subscriberBuffer);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private final AtomicLong sendingSince = new AtomicLong(IDLE);
+
+        private Subscriber(SseEmitter emitter, Long flightId, String airportCode) {
+            this.emitter = emitter;
+            this.flightId = flightId;
+            this.airportCode = airportCode;
+        }
+
+        private boolean matches(FlightEvent event) {
+            return (flightId == null || flightId.equals(event.flightId()))
+                    && (airportCode == null || airportCode.equals(event.departureCode()) || airportCode.equals(event.arrivalCode()));
+        }
+
+        private void offer(Message message) {
+            if (closed.get() || senders.isShutdown()) {
+                return;
+            }
+            if (!queue.offer(message)) {
+                // The client reads slower than changes arrive; it can reconnect and re-read state
+                evict();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (!senders.isShutdown() && draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        // Completing the emitter waits for a send in progress, so the drain does it instead of the caller
+        private void evict() {
+            if (remove(this)) {
+                evicted.incrementAndGet();
+            }
+            queue.clear();
+            scheduleDrain();
+        }
+
+        private void checkStalled(long now) {
+            long since = sendingSince.get();
+            if (since != IDLE && since != STALLED && now - since > sendTimeoutNanos
+                    && sendingSince.compareAndSet(since, STALLED)) {
+                evict();
+                resizeSenders(1);
+            }
+        }
+
+        // At most one drain per subscriber runs at a time, so events keep their order
+        private void drain() {
+            sending.add(this);
+            try {
+                Message message;
+                while (!closed.get() && (message = queue.poll()) != null) {
+                    send(message);
+                }
+                if (closed.get()) {
+                    emitter.complete();
+                }
+            } catch (IOException | IllegalStateException e) {
+                remove(this);
+                queue.clear();
+                return;
+            } finally {
+                sending.remove(this);
+                draining.set(false);
+            }
+            // A message offered after the last poll but before the flag was cleared
+            if (!queue.isEmpty() && !closed.get()) {
+                scheduleDrain();
+            }
+        }
+
+        private void send(Message message) throws IOException {
+            long since = System.nanoTime();
+            sendingSince.set(since);
+            try {
+                emitter.send(message.toEvent());
+            } finally {
+                // The stall check got here first and added a sender in place of this thread
+                if (!sendingSince.compareAndSet(since, IDLE)) {
+                    resizeSenders(-1);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package com.rukiyesahin.airlinereservationsystem.service;
+
+import com.rukiyesahin.airlinereservationsystem.dto.AircraftBlock;
+import com.rukiyesahin.airlinereservationsystem.entity.Aircraft;
+import com.rukiyesahin.airlinereservationsystem.entity.Airport;
+import com.rukiyesahin.airlinereservationsystem.entity.Flight;
+import com.rukiyesahin.airlinereservationsystem.exception.InvalidFlightDataException;
+import com.rukiyesahin.airlinereservationsystem.repository.AircraftRepository;
+import com.rukiyesahin.airlinereservationsystem.repository.AirportRepository;
+import com.rukiyesahin.airlinereservationsystem.repository.FlightRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Bulk schedule import from CSV. Airports and aircraft are loaded into maps once per import,
+// rows are parsed and validated in parallel a chunk at a time, and each chunk's valid rows
+// are inserted in one transaction as JDBC batches, with the airport counters updated per route.
+@Service
+public class FlightImportService {
+
+    private static final List<String> REQUIRED_COLUMNS = List.of(
+            "flightNumber", "departureAirport", "arrivalAirport", "departureTime", "arrivalTime", "totalSeats", "basePrice");
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private AirportRepository airportRepository;
+
+    @Autowired
+    private AircraftRepository aircraftRepository;
+
+    @Autowired
+    private AirportService airportService;
+
+    @Autowired
+    private ItinerarySearchService itinerarySearchService;
+
+    @Autowired
+    private FlightRules flightRules;
+
+    @Autowired
+    private FlightStatusScheduler flightStatusScheduler;
+
+    @Autowired
+    private AircraftRotationIndex aircraftRotationIndex;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${airline.import.batch-size:500}")
+    private int defaultBatchSize;
+
+    @Value("${airline.import.max-batch-size:5000}")
+    private int maxBatchSize;
+
+    @Value("${airline.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    // Import every row of a CSV schedule; rows that fail are reported and skipped
+    public ImportReport importFlights(InputStream in, Integer batchSize) {
+        int chunkSize = batchSize == null ? defaultBatchSize : batchSize;
+        if (chunkSize < 1 || chunkSize > maxBatchSize) {
+            throw new InvalidFlightDataException("Batch size must be between 1 and " + maxBatchSize);
+        }
+        long started = System.nanoTime();
+        Catalog catalog = new Catalog(
+                airportRepository.findAll().stream().collect(Collectors.toMap(Airport::getCode, Function.identity())),
+                aircraftRepository.findAll().stream().collect(Collectors.toMap(Aircraft::getRegistration, Function.identity())));
+        Progress progress = new Progress();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            CsvHeader columns = CsvHeader.parse(reader.readLine(), REQUIRED_COLUMNS, InvalidFlightDataException::new);
+            List<Line> chunk = new ArrayList<>(chunkSize);
+            int lineNumber = 1;
+            String text;
+            while ((text = reader.readLine()) != null) {
+                lineNumber++;
+                if (text.isBlank()) {
+                    continue;
+                }
+                chunk.add(new Line(lineNumber, text));
+                if (chunk.size() == chunkSize) {
+                    importChunk(chunk, columns, catalog, progress);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(chunk, columns, catalog, progress);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        // One rebuild of the search index and status timers instead of a refresh per flight
+        if (progress.imported > 0) {
+            itinerarySearchService.reload();
+            flightStatusScheduler.reload();
+        }
+        long elapsedNanos = System.nanoTime() - started;
+        int rows = progress.imported + progress.failed;
+        return new ImportReport(rows, progress.imported, progress.failed, chunkSize,
+                elapsedNanos / 1_000_000, elapsedNanos == 0 ? 0 : rows * 1e9 / elapsedNanos, progress.errors);
+    }
+
+    private void importChunk(List<Line> lines, CsvHeader columns, Catalog catalog, Progress progress) {
+        // Parsing and validation only touch the preloaded maps, so they run on all cores
+        List<ParsedRow> rows = lines.parallelStream()
+                .map(line -> parse(line, columns, catalog))
+                .toList();
+
+        List<ParsedRow> valid = new ArrayList<>(rows.size());
+        for (ParsedRow row : rows) {
+            if (row.error() != null) {
+                progress.fail(row, row.error(), maxReportedErrors);
+            } else if (!progress.flightNumbers.add(row.flightNumber())) {
+                progress.fail(row, "Duplicate flight number in file: " + row.flightNumber(), maxReportedErrors);
+            } else {
+                valid.add(row);
+            }
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        try {
+            Map<String, String> rejected = new TransactionTemplate(transactionManager).execute(status -> insert(valid));
+            for (ParsedRow row : valid) {
+                if (rejected.containsKey(row.flightNumber())) {
+                    progress.fail(row, rejected.get(row.flightNumber()), maxReportedErrors);
+                } else {
+                    progress.imported++;
+                }
+            }
+        } catch (RuntimeException e) {
+            for (ParsedRow row : valid) {
+                progress.fail(row, "Batch rolled back: " + e.getMessage(), maxReportedErrors);
+            }
+        }
+    }
+
+    // Persist rows whose flight numbers and aircraft are still free and count them against their
+    // airports. Returns the skipped flight numbers with the reason each was skipped.
+    private Map<String, String> insert(List<ParsedRow> rows) {
+        Set<String> existing = new HashSet<>(flightRepository.findExistingFlightNumbers(
+                rows.stream().map(ParsedRow::flightNumber).toList()));
+        Map<String, String> rejected = new HashMap<>();
+        Map<List<Long>, Long> flightsPerRoute = new HashMap<>();
+        for (ParsedRow row : rows) {
+            if (existing.contains(row.flightNumber())) {
+                rejected.put(row.flightNumber(), "Flight number already exists: " + row.flightNumber());
+                continue;
+            }
+            Flight flight = row.flight();
+            if (flight.getAircraft() != null) {
+                Optional<AircraftBlock> conflict = aircraftRotationIndex.findConflict(flight.getAircraft().getId(),
+                        flight.getDepartureTime(), flight.getArrivalTime(), null);
+                if (conflict.isPresent()) {
+                    rejected.put(row.flightNumber(), "Aircraft is assigned to flight " + conflict.get().flightNumber()
+                            + " at that time");
+                    continue;
+                }
+            }
+            Long departureId = flight.getDepartureAirport().getId();
+            Long arrivalId = flight.getArrivalAirport().getId();
+            flight.setDepartureAirport(entityManager.getReference(Airport.class, departureId));
+            flight.setArrivalAirport(entityManager.getReference(Airport.class, arrivalId));
+            if (flight.getAircraft() != null) {
+                flight.setAircraft(entityManager.getReference(Aircraft.class, flight.getAircraft().getId()));
+            }
+            entityManager.persist(flight);
+            aircraftRotationIndex.reserve(flight);
+            flightsPerRoute.merge(List.of(departureId, arrivalId), 1L, Long::sum);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        flightsPerRoute.forEach((route, count) -> airportService.recordFlights(route.get(0), route.get(1), count));
+        return rejected;
+    }
+
+    private ParsedRow parse(Line line, CsvHeader columns, Catalog catalog) {
+        String[] fields = CsvHeader.split(line.text());
+        String flightNumber = columns.get(fields, "flightNumber");
+        try {
+            Flight flight = new Flight();
+            flight.setFlightNumber(flightNumber);
+            flight.setDepartureAirport(airport(catalog, columns.get(fields, "departureAirport")));
+            flight.setArrivalAirport(airport(catalog, columns.get(fields, "arrivalAirport")));
+            flight.setDepartureTime(columns.getDateTime(fields, "departureTime"));
+            flight.setArrivalTime(columns.getDateTime(fields, "arrivalTime"));
+            flight.setTotalSeats(columns.getInteger(fields, "totalSeats"));
+            flight.setBasePrice(columns.getDecimal(fields, "basePrice"));
+            flight.setBusinessClassPrice(columns.getDecimal(fields, "businessClassPrice"));
+            flight.setFirstClassPrice(columns.getDecimal(fields, "firstClassPrice"));
+            flight.setGate(columns.get(fields, "gate"));
+            flight.setTerminal(columns.get(fields, "terminal"));
+            String registration = columns.get(fields, "aircraftRegistration");
+            if (registration != null) {
+                Aircraft aircraft = catalog.aircraftByRegistration().get(registration);
+                if (aircraft == null) {
+                    throw new InvalidFlightDataException("Aircraft not found: " + registration);
+                }
+                flightRules.validateAircraft(aircraft);
+                flight.setAircraft(aircraft);
+            }
+
+            flightRules.validateFlightData(flight);
+            flightRules.validateFlightSchedule(flight);
+            flightRules.applyDefaults(flight);
+            return new ParsedRow(line.number(), flightNumber, flight, null);
+        } catch (RuntimeException e) {
+            return new ParsedRow(line.number(), flightNumber, null, e.getMessage());
+        }
+    }
+
+    private static Airport airport(Catalog catalog, String code) {
+        if (code == null) {
+            return null;
+        }
+        Airport airport = catalog.airportsByCode().get(code.toUpperCase(Locale.ROOT));
+        if (airport == null) {
+            throw new InvalidFlightDataException("Airport not found: " + code);
+        }
+        return airport;
+    }
+
+    private record Catalog(Map<String, Airport> airportsByCode, Map<String, Aircraft> aircraftByRegistration) {}
+
+    private record Line(int number, String text) {}
+
+    private record ParsedRow(int line, String flightNumber, Flight flight, String error) {}
+
+    private static class Progress {
+        private final Set<String> flightNumbers = new HashSet<>();
+        private final List<RowError> errors = new ArrayList<>();
+        private int imported;
+        private int failed;
+
+        void fail(ParsedRow row, String message, int maxReportedErrors) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new RowError(row.line(), row.flightNumber(), message));
+            }
+        }
+    }
+
+    public record RowError(int line, String flightNumber, String message) {}
+
+    // Outcome of one import; errors holds at most airline.import.max-reported-errors rows
+    public record ImportReport(int rows,
+                               int imported,
+                               int failed,
+                               int batchSize,
+                               long elapsedMs,
+                               double rowsPerSecond,
+                               List<RowError> errors) {}
+}
@@ -0,0 +1,104 @@
+package com.rukiyesahin.airlinereservationsystem.service;
+
+import com.rukiyesahin.airlinereservationsystem.entity.Aircraft;
+import com.rukiyesahin.airlinereservationsystem.entity.Flight;
+import com.rukiyesahin.airlinereservationsystem.exception.AircraftNotAvailableException;
+import com.rukiyesahin.airlinereservationsystem.exception.InvalidFlightDataException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+// Validation and default pricing for new flights, shared by FlightService.createFlight and
+// the bulk import. Stateless and free of repository calls, so it can run on parallel threads.
+@Component
+public class FlightRules {
+
+    @Value("${airline.booking.min-hours-before-departure:2}")
+    private int minHoursBeforeDeparture;
+
+    @Value("${airline.pricing.business-class-multiplier:2.5}")
+    private BigDecimal businessClassMultiplier;
+
+    @Value("${airline.pricing.first-class-multiplier:4.0}")
+    private BigDecimal firstClassMultiplier;
+
+    // Required fields, distinct airports and arrival after departure
+    public void validateFlightData(Flight flight) {
+        if (flight.getFlightNumber() == null || flight.getFlightNumber().trim().isEmpty()) {
+            throw new InvalidFlightDataException("Flight number is required");
+        }
+        if (flight.getDepartureAirport() == null) {
+            throw new InvalidFlightDataException("Departure airport is required");
+        }
+        if (flight.getArrivalAirport() == null) {
+            throw new InvalidFlightDataException("Arrival airport is required");
+        }
+        if (flight.getDepartureTime() == null) {
+            throw new InvalidFlightDataException("Departure time is required");
+        }
+        if (flight.getArrivalTime() == null) {
+            throw new InvalidFlightDataException("Arrival time is required");
+        }
+        if (flight.getTotalSeats() == null || flight.getTotalSeats() <= 0) {
+            throw new InvalidFlightDataException("Total seats must be positive");
+        }
+        if (flight.getBasePrice() == null || flight.getBasePrice().compareTo(BigDecimal.ZERO) <= 0) {
+            throw new InvalidFlightDataException("Base price must be positive");
+        }
+
+        // Validate that departure and arrival airports are different
+        if (flight.getDepartureAirport().equals(flight.getArrivalAirport())) {
+            throw new InvalidFlightDataException("Departure and arrival airports must be different");
+        }
+
+        // Validate that arrival time is after departure time
+        if (flight.getArrivalTime().isBefore(flight.getDepartureTime())) {
+            throw new InvalidFlightDataException("Arrival time must be after departure time");
+        }
+    }
+
+    // Departure must be far enough in the future to be bookable
+    public void validateFlightSchedule(Flight flight) {
+        LocalDateTime now = LocalDateTime.now();
+
+        // Check if departure time is in the future
+        if (flight.getDepartureTime().isBefore(now)) {
+            throw new InvalidFlightDataException("Departure time must be in the future");
+        }
+
+        // Check minimum time before departure for booking
+        Duration timeUntilDeparture = Duration.between(now, flight.getDepartureTime());
+        if (timeUntilDeparture.toHours() < minHoursBeforeDeparture) {
+            throw new InvalidFlightDataException("Flight must be scheduled at least " + minHoursBeforeDeparture + " hours in advance");
+        }
+    }
+
+    // The assigned aircraft must be active and not overdue for maintenance
+    public void validateAircraft(Aircraft aircraft) {
+        if (!aircraft.isActive()) {
+            throw new AircraftNotAvailableException("Aircraft is not available for flights");
+        }
+
+        if (aircraft.needsMaintenance()) {
+            throw new AircraftNotAvailableException("Aircraft needs maintenance");
+        }
+    }
+
+    // Fill in class prices and available seats the caller left out
+    public void applyDefaults(Flight flight) {
+        if (flight.getBusinessClassPrice() == null) {
+            flight.setBusinessClassPrice(flight.getBasePrice().multiply(businessClassMultiplier));
+        }
+        if (flight.getFirstClassPrice() == null) {
+            flight.setFirstClassPrice(flight.getBasePrice().multiply(firstClassMultiplier));
+        }
+
+        // Set available seats equal to total seats initially
+        if (flight.getAvailableSeats() == null) {
+            flight.setAvailableSeats(flight.getTotalSeats());
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.rukiyesahin.airlinereservationsystem.service;
 
 
 
+import com.rukiyesahin.airlinereservationsystem.dto.FlightEvent;
+import com.rukiyesahin.airlinereservationsystem.dto.FlightSummary;
 import com.rukiyesahin.airlinereservationsystem.entity.Flight;
 import com.rukiyesahin.airlinereservationsystem.entity.Airport;
 import com.rukiyesahin.airlinereservationsystem.entity.Aircraft;
@@ -12,14 +14,19 @@ import com.rukiyesahin.airlinereservationsystem.exception.FlightNotFoundExceptio
 import com.rukiyesahin.airlinereservationsystem.exception.InvalidFlightDataException;
 import com.rukiyesahin.airlinereservationsystem.exception.FlightNotAvailableException;
 import com.rukiyesahin.airlinereservationsystem.exception.AircraftNotAvailableException;
+import com.rukiyesahin.airlinereservationsystem.money.Money;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,6 +34,8 @@ import java.util.Optional;
 @Transactional
 public class FlightService {
 
+    private static final String PAGE_SCOPE = "flights";
+
     @Autowired
     private FlightRepository flightRepository;
 
@@ -36,38 +45,49 @@ public class FlightService {
     @Autowired
     private AircraftRepository aircraftRepository;
 
-    @Value("${airline.booking.min-hours-before-departure:2}")
-    private int minHoursBeforeDeparture;
+    @Autowired
+    private AirportCache airportCache;
 
-    @Value("${airline.pricing.base-price:100.0}")
-    private BigDecimal basePrice;
+    @Autowired
+    private AirportService airportService;
 
-    @Value("${airline.pricing.business-class-multiplier:2.5}")
-    private BigDecimal businessClassMultiplier;
+    @Autowired
+    private SeatInventory seatInventory;
 
-    @Value("${airline.pricing.first-class-multiplier:4.0}")
-    private BigDecimal firstClassMultiplier;
+    @Autowired
+    private ItinerarySearchService itinerarySearchService;
 
-    // Create new flight
-    public Flight createFlight(Flight flight) {
-        validateFlightData(flight);
-        validateFlightSchedule(flight);
-        validateAircraftAvailability(flight);
+    @Autowired
+    private KeysetPagination keysetPagination;
 
-        // Set default prices if not provided
-        if (flight.getBusinessClassPrice() == null) {
-            flight.setBusinessClassPrice(flight.getBasePrice().multiply(businessClassMultiplier));
-        }
-        if (flight.getFirstClassPrice() == null) {
-            flight.setFirstClassPrice(flight.getBasePrice().multiply(firstClassMultiplier));
-        }
+    @Autowired
+    private AirlineMetrics airlineMetrics;
 
-        // Set available seats equal to total seats initially
-        if (flight.getAvailableSeats() == null) {
-            flight.setAvailableSeats(flight.getTotalSeats());
-        }
+    @Autowired
+    private FlightRules flightRules;
 
-        return flightRepository.save(flight);
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private AircraftRotationIndex aircraftRotationIndex;
+
+    @Value("${airline.pricing.base-price:100.0}")
+    private BigDecimal basePrice;
+
+    // Create new flight
+    public Flight createFlight(Flight flight) {
+        flightRules.validateFlightData(flight);
+        flightRules.validateFlightSchedule(flight);
+        validateAircraftAvailability(flight);
+        flightRules.applyDefaults(flight);
+
+        Flight savedFlight = flightRepository.save(flight);
+        aircraftRotationIndex.reserve(savedFlight);
+        airportService.recordFlights(savedFlight.getDepartureAirport().getId(), savedFlight.getArrivalAirport().getId(), 1);
+        itinerarySearchService.refresh(savedFlight);
+        publish(FlightEvent.Type.CREATED, savedFlight);
+        return savedFlight;
     }
 
     // Get flight by ID
@@ -82,8 +102,14 @@ public class FlightService {
     }
 
     // Get all flights
-    public List<Flight> getAllFlights() {
-        return flightRepository.findAll();
+    @Transactional(readOnly = true)
+    public CursorPage<Flight> getAllFlights(String cursor, Integer size) {
+        int pageSize = keysetPagination.pageSize(size);
+        KeysetPagination.TimeAndId after = afterKey(cursor);
+        List<Flight> rows = after == null
+                ? flightRepository.findFirstPage(pageSize + 1)
+                : flightRepository.findPageAfter(after.time(), after.id(), pageSize + 1);
+        return toPage(rows, pageSize);
     }
 
     // Get available flights
@@ -92,25 +118,52 @@ public class FlightService {
     }
 
     // Search flights by route and date
-    public List<Flight> searchFlights(String departureCode, String arrivalCode, LocalDateTime departureDate) {
-        Airport departure = airportRepository.findByCode(departureCode)
+    @Transactional(readOnly = true)
+    public List<FlightSummary> searchFlights(String departureCode, String arrivalCode, LocalDateTime departureDate) {
+        Airport departure = airportCache.findByCode(departureCode)
                 .orElseThrow(() -> new FlightNotFoundException("Departure airport not found: " + departureCode));
-        Airport arrival = airportRepository.findByCode(arrivalCode)
+        Airport arrival = airportCache.findByCode(arrivalCode)
                 .orElseThrow(() -> new FlightNotFoundException("Arrival airport not found: " + arrivalCode));
 
         LocalDateTime endDate = departureDate.plusDays(1);
-        return flightRepository.findAvailableFlights(departure, arrival, departureDate, endDate);
+        return flightRepository.findAvailableFlightSummaries(departure.getId(), arrival.getId(), departureDate, endDate);
     }
 
     // Search flights by route and date range
-    public List<Flight> searchFlightsByDateRange(String departureCode, String arrivalCode,
-                                                 LocalDateTime startDate, LocalDateTime endDate) {
-        return flightRepository.findAvailableFlightsByRouteAndDate(departureCode, arrivalCode, startDate, endDate);
+    @Transactional(readOnly = true)
+    public List<FlightSummary> searchFlightsByDateRange(String departureCode, String arrivalCode,
+                                                        LocalDateTime startDate, LocalDateTime endDate) {
+        return flightRepository.findAvailableFlightSummariesByRouteAndDate(departureCode, arrivalCode, startDate, endDate);
+    }
+
+    // Search results in the requested order: "departure" as queried, or "price" for cheapest first
+    public List<FlightSummary> sortSearchResults(List<FlightSummary> results, String sort) {
+        if (sort == null || sort.equals("departure")) {
+            return results;
+        }
+        if (!sort.equals("price")) {
+            throw new InvalidFlightDataException("Sort must be departure or price");
+        }
+        List<FlightSummary> sorted = new ArrayList<>(results);
+        sorted.sort(FlightSummary.BY_FARE);
+        return sorted;
+    }
+
+    // Search direct and connecting itineraries departing within a day of the given date
+    public List<ItinerarySearchService.Itinerary> searchConnections(String departureCode, String arrivalCode,
+                                                                    LocalDateTime departureDate, int maxStops) {
+        return itinerarySearchService.search(departureCode, arrivalCode, departureDate, maxStops);
     }
 
     // Get flights by status
-    public List<Flight> getFlightsByStatus(Flight.FlightStatus status) {
-        return flightRepository.findByStatus(status);
+    @Transactional(readOnly = true)
+    public CursorPage<Flight> getFlightsByStatus(Flight.FlightStatus status, String cursor, Integer size) {
+        int pageSize = keysetPagination.pageSize(size);
+        KeysetPagination.TimeAndId after = afterKey(cursor);
+        List<Flight> rows = after == null
+                ? flightRepository.findFirstPageByStatus(status, pageSize + 1)
+                : flightRepository.findPageByStatusAfter(status, after.time(), after.id(), pageSize + 1);
+        return toPage(rows, pageSize);
     }
 
     // Get flights departing soon
@@ -122,17 +175,18 @@ public class FlightService {
 
     // Get flights by price range
     public List<Flight> getFlightsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
-        return flightRepository.findByBasePriceBetween(minPrice, maxPrice);
+        return flightRepository.findByBasePriceBetween(Money.of(minPrice, RoundingMode.CEILING),
+                Money.of(maxPrice, RoundingMode.FLOOR));
     }
 
     // Get affordable flights
     public List<Flight> getAffordableFlights(BigDecimal maxPrice) {
-        return flightRepository.findAffordableFlights(maxPrice);
+        return flightRepository.findAffordableFlights(Money.of(maxPrice, RoundingMode.FLOOR));
     }
 
     // Get flights by airport
     public List<Flight> getFlightsByAirport(String airportCode) {
-        Airport airport = airportRepository.findByCode(airportCode)
+        Airport airport = airportCache.findByCode(airportCode)
                 .orElseThrow(() -> new FlightNotFoundException("Airport not found: " + airportCode));
         return flightRepository.findFlightsByAirport(airport);
     }
@@ -173,7 +227,12 @@ public class FlightService {
             flight.setFirstClassPrice(flightDetails.getFirstClassPrice());
         }
 
-        return flightRepository.save(flight);
+        seatInventory.sync(flight);
+        Flight savedFlight = flightRepository.save(flight);
+        aircraftRotationIndex.reserve(savedFlight);
+        itinerarySearchService.refresh(savedFlight);
+        publish(FlightEvent.Type.UPDATED, savedFlight);
+        return savedFlight;
     }
 
     // Cancel flight
@@ -183,7 +242,12 @@ public class FlightService {
             throw new FlightNotAvailableException("Flight cannot be cancelled");
         }
         flight.setStatus(Flight.FlightStatus.CANCELLED);
-        return flightRepository.save(flight);
+        seatInventory.sync(flight);
+        Flight savedFlight = flightRepository.save(flight);
+        aircraftRotationIndex.refresh(savedFlight);
+        itinerarySearchService.refresh(savedFlight);
+        publish(FlightEvent.Type.CANCELLED, savedFlight);
+        return savedFlight;
     }
 
     // Delay flight
@@ -195,24 +259,30 @@ public class FlightService {
         flight.setDepartureTime(flight.getDepartureTime().plus(delay));
         flight.setArrivalTime(flight.getArrivalTime().plus(delay));
         flight.setStatus(Flight.FlightStatus.DELAYED);
-        return flightRepository.save(flight);
+        seatInventory.sync(flight);
+        Flight savedFlight = flightRepository.save(flight);
+        // A delay into the aircraft's next flight is refused; the rotation delay pushes that one back too
+        aircraftRotationIndex.reserve(savedFlight);
+        itinerarySearchService.refresh(savedFlight);
+        publish(FlightEvent.Type.DELAYED, savedFlight);
+        return savedFlight;
     }
 
-    // Book seat on flight
+    // Book seat on flight (counted in memory, written back by the seat inventory flush)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void bookSeat(Long flightId) {
-        Flight flight = getFlightById(flightId);
-        if (!flight.isAvailable()) {
+        if (!seatInventory.tryBookSeat(flightId)) {
             throw new FlightNotAvailableException("Flight is not available for booking");
         }
-        flight.bookSeat();
-        flightRepository.save(flight);
+        airlineMetrics.seatBooked();
     }
 
     // Cancel seat on flight
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void cancelSeat(Long flightId) {
-        Flight flight = getFlightById(flightId);
-        flight.cancelSeat();
-        flightRepository.save(flight);
+        if (seatInventory.releaseSeat(flightId)) {
+            airlineMetrics.seatCancelled();
+        }
     }
 
     // Get flight price for seat class
@@ -222,23 +292,35 @@ public class FlightService {
     }
 
     // Get flights by country
-    public List<Flight> getFlightsByCountry(String country) {
-        return flightRepository.findFlightsByCountry(country);
+    @Transactional(readOnly = true)
+    public CursorPage<Flight> getFlightsByCountry(String country, String cursor, Integer size) {
+        int pageSize = keysetPagination.pageSize(size);
+        KeysetPagination.TimeAndId after = afterKey(cursor);
+        List<Flight> rows = after == null
+                ? flightRepository.findFirstPageByCountry(country, pageSize + 1)
+                : flightRepository.findPageByCountryAfter(country, after.time(), after.id(), pageSize + 1);
+        return toPage(rows, pageSize);
     }
 
     // Get flights by city
-    public List<Flight> getFlightsByCity(String city) {
-        return flightRepository.findFlightsByCity(city);
+    @Transactional(readOnly = true)
+    public CursorPage<Flight> getFlightsByCity(String city, String cursor, Integer size) {
+        int pageSize = keysetPagination.pageSize(size);
+        KeysetPagination.TimeAndId after = afterKey(cursor);
+        List<Flight> rows = after == null
+                ? flightRepository.findFirstPageByCity(city, pageSize + 1)
+                : flightRepository.findPageByCityAfter(city, after.time(), after.id(), pageSize + 1);
+        return toPage(rows, pageSize);
     }
 
     // Get business class flights
     public List<Flight> getBusinessClassFlights(BigDecimal maxPrice) {
-        return flightRepository.findBusinessClassFlights(maxPrice);
+        return flightRepository.findBusinessClassFlights(Money.of(maxPrice, RoundingMode.FLOOR));
     }
 
     // Get first class flights
     public List<Flight> getFirstClassFlights(BigDecimal maxPrice) {
-        return flightRepository.findFirstClassFlights(maxPrice);
+        return flightRepository.findFirstClassFlights(Money.of(maxPrice, RoundingMode.FLOOR));
     }
 
     // Get fully booked flights
@@ -261,68 +343,19 @@ public class FlightService {
         return flightRepository.countScheduledFlightsInPeriod(startDate, endDate);
     }
 
-    // Business validation methods
-    private void validateFlightData(Flight flight) {
-        if (flight.getFlightNumber() == null || flight.getFlightNumber().trim().isEmpty()) {
-            throw new InvalidFlightDataException("Flight number is required");
-        }
-        if (flight.getDepartureAirport() == null) {
-            throw new InvalidFlightDataException("Departure airport is required");
-        }
-        if (flight.getArrivalAirport() == null) {
-            throw new InvalidFlightDataException("Arrival airport is required");
-        }
-        if (flight.getDepartureTime() == null) {
-            throw new InvalidFlightDataException("Departure time is required");
-        }
-        if (flight.getArrivalTime() == null) {
-            throw new InvalidFlightDataException("Arrival time is required");
-        }
-        if (flight.getTotalSeats() == null || flight.getTotalSeats() <= 0) {
-            throw new InvalidFlightDataException("Total seats must be positive");
-        }
-        if (flight.getBasePrice() == null || flight.getBasePrice().compareTo(BigDecimal.ZERO) <= 0) {
-            throw new InvalidFlightDataException("Base price must be positive");
-        }
-
-        // Validate that departure and arrival airports are different
-        if (flight.getDepartureAirport().equals(flight.getArrivalAirport())) {
-            throw new InvalidFlightDataException("Departure and arrival airports must be different");
-        }
-
-        // Validate that arrival time is after departure time
-        if (flight.getArrivalTime().isBefore(flight.getDepartureTime())) {
-            throw new InvalidFlightDataException("Arrival time must be after departure time");
-        }
-    }
-
-    private void validateFlightSchedule(Flight flight) {
-        LocalDateTime now = LocalDateTime.now();
-
-        // Check if departure time is in the future
-        if (flight.getDepartureTime().isBefore(now)) {
-            throw new InvalidFlightDataException("Departure time must be in the future");
-        }
-
-        // Check minimum time before departure for booking
-        Duration timeUntilDeparture = Duration.between(now, flight.getDepartureTime());
-        if (timeUntilDeparture.toHours() < minHoursBeforeDeparture) {
-            throw new InvalidFlightDataException("Flight must be scheduled at least " + minHoursBeforeDeparture + " hours in advance");
-        }
+    // Flights saved from a request may only carry airport ids, so the codes come from the cache
+    private void publish(FlightEvent.Type type, Flight flight) {
+        eventPublisher.publishEvent(FlightEvent.of(type, flight,
+                airportCache.codeOf(flight.getDepartureAirport()).orElse(null),
+                airportCache.codeOf(flight.getArrivalAirport()).orElse(null)));
     }
 
+    // Business validation methods
     private void validateAircraftAvailability(Flight aircraft) {
         if (aircraft.getAircraft() != null) {
             Aircraft aircraftEntity = aircraftRepository.findById(aircraft.getAircraft().getId())
                     .orElseThrow(() -> new AircraftNotAvailableException("Aircraft not found"));
-
-            if (!aircraftEntity.isActive()) {
-                throw new AircraftNotAvailableException("Aircraft is not available for flights");
-            }
-
-            if (aircraftEntity.needsMaintenance()) {
-                throw new AircraftNotAvailableException("Aircraft needs maintenance");
-            }
+            flightRules.validateAircraft(aircraftEntity);
         }
     }
 
@@ -332,4 +365,13 @@ public class FlightService {
             throw new InvalidFlightDataException("Departure time cannot be in the past");
         }
     }
-}
\ No newline at end of file
+
+    private KeysetPagination.TimeAndId afterKey(String cursor) {
+        return cursor == null || cursor.isBlank() ? null : keysetPagination.decodeTimeAndId(PAGE_SCOPE, cursor);
+    }
+
+    private CursorPage<Flight> toPage(List<Flight> rows, int pageSize) {
+        return keysetPagination.page(rows, pageSize,
+                flight -> keysetPagination.encodeTimeAndId(PAGE_SCOPE, flight.getDepartureTime(), flight.getId()));
+    }
+}
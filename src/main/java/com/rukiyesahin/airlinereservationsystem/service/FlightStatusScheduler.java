@@ -0,0 +1,258 @@
+package com.rukiyesahin.airlinereservationsystem.service;
+
+import com.rukiyesahin.airlinereservationsystem.dto.FlightEvent;
+import com.rukiyesahin.airlinereservationsystem.dto.FlightTimes;
+import com.rukiyesahin.airlinereservationsystem.entity.Flight;
+import com.rukiyesahin.airlinereservationsystem.repository.FlightRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Moves flights through BOARDING, DEPARTED and ARRIVED as their times pass. Each active flight
+// has one pending transition in a timing wheel; every tick the expired ones are written with one
+// UPDATE ... WHERE id IN per status, and the next transition of each flight is armed. Flight
+// changes re-arm it, so a delay moves its pending transition to the new times.
+@Service
+public class FlightStatusScheduler {
+
+    private static final List<Flight.FlightStatus> PROGRESSION = List.of(
+            Flight.FlightStatus.BOARDING, Flight.FlightStatus.DEPARTED, Flight.FlightStatus.ARRIVED);
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private SeatInventory seatInventory;
+
+    @Autowired
+    private ItinerarySearchService itinerarySearchService;
+
+    @Autowired
+    private AirlineMetrics airlineMetrics;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${airline.status.boarding-minutes-before-departure:30}")
+    private int boardingMinutes;
+
+    @Value("${airline.status.tick-ms:1000}")
+    private long tickMs;
+
+    @Value("${airline.status.batch-size:500}")
+    private int batchSize;
+
+    // Flight id -> its pending transition; a wheel entry that is no longer in here was re-armed or cancelled
+    private final Map<Long, Transition> armed = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private TimingWheel<Transition> wheel;
+
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder("airline.flights.status.pending", this, FlightStatusScheduler::getPendingCount)
+                .description("Flights with a status transition armed in the timing wheel")
+                .register(meterRegistry);
+    }
+
+    // Arm every flight that has not arrived yet; ones whose times already passed move on the first tick
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        List<FlightTimes> flights = flightRepository.findActiveFlightTimes();
+        lock.lock();
+        try {
+            wheel = new TimingWheel<>(tickMs, System.currentTimeMillis());
+            armed.clear();
+            for (FlightTimes flight : flights) {
+                arm(flight, flight.status());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Re-arm a flight that was created, changed, delayed or cancelled, once the change is committed
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFlightChanged(FlightEvent event) {
+        if (event.type() == FlightEvent.Type.SEATS_CHANGED || event.type() == FlightEvent.Type.STATUS_CHANGED) {
+            return;
+        }
+        FlightTimes flight = new FlightTimes(event.flightId(), event.flightNumber(), event.departureCode(),
+                event.arrivalCode(), event.status(), event.departureTime(), event.arrivalTime());
+        lock.lock();
+        try {
+            if (wheel != null) {
+                arm(flight, flight.status());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${airline.status.tick-ms:1000}")
+    public void tick() {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Flight.FlightStatus, List<Transition>> byStatus = new EnumMap<>(Flight.FlightStatus.class);
+        lock.lock();
+        try {
+            if (wheel == null) {
+                return;
+            }
+            for (Transition transition : wheel.advanceTo(System.currentTimeMillis())) {
+                if (armed.get(transition.flight().id()) == transition) {
+                    // A flight that was late to be picked up goes straight to the status it should have by now
+                    Flight.FlightStatus reached = transition.status();
+                    Flight.FlightStatus next = next(reached);
+                    while (next != null && !now.isBefore(dueAt(transition.flight(), next))) {
+                        reached = next;
+                        next = next(reached);
+                    }
+                    byStatus.computeIfAbsent(reached, status -> new ArrayList<>()).add(transition);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (byStatus.isEmpty()) {
+            return;
+        }
+
+        Map<Flight.FlightStatus, Set<Long>> updated;
+        try {
+            updated = new TransactionTemplate(transactionManager).execute(status -> {
+                Map<Flight.FlightStatus, Set<Long>> written = new EnumMap<>(Flight.FlightStatus.class);
+                byStatus.forEach((reached, transitions) -> {
+                    List<Long> ids = transitions.stream().map(transition -> transition.flight().id()).toList();
+                    Set<Long> moved = new HashSet<>();
+                    for (int from = 0; from < ids.size(); from += batchSize) {
+                        List<Long> batch = ids.subList(from, Math.min(from + batchSize, ids.size()));
+                        int count = flightRepository.updateStatus(batch, reached, precedingStatuses(reached),
+                                reached == Flight.FlightStatus.BOARDING ? now.plusMinutes(boardingMinutes) : now,
+                                reached == Flight.FlightStatus.ARRIVED ? now : null, now);
+                        // Only when the guard skipped some rows is it worth asking which ones moved
+                        moved.addAll(count == batch.size() ? batch : flightRepository.findIdsInStatus(batch, reached));
+                    }
+                    written.put(reached, moved);
+                });
+                return written;
+            });
+        } catch (RuntimeException e) {
+            // Nothing was written, so put the transitions back to be retried on the next tick
+            lock.lock();
+            try {
+                byStatus.values().forEach(transitions -> transitions.forEach(transition ->
+                        wheel.schedule(transition, System.currentTimeMillis() + tickMs)));
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+
+        byStatus.forEach((reached, transitions) -> {
+            Set<Long> written = updated.get(reached);
+            List<FlightTimes> moved = new ArrayList<>(transitions.size());
+            lock.lock();
+            try {
+                for (Transition transition : transitions) {
+                    Long flightId = transition.flight().id();
+                    if (armed.get(flightId) != transition) {
+                        // Re-armed by a change that committed while the update ran
+                        continue;
+                    }
+                    if (written.contains(flightId)) {
+                        arm(transition.flight(), reached);
+                        moved.add(transition.flight());
+                    } else {
+                        // The guarded UPDATE skipped it: the row left the expected statuses or times
+                        // without an event here, so the transition is stale
+                        armed.remove(flightId);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+            for (FlightTimes flight : moved) {
+                if (reached == Flight.FlightStatus.BOARDING || reached == Flight.FlightStatus.DEPARTED) {
+                    seatInventory.closeBooking(flight.id());
+                    itinerarySearchService.remove(flight.id());
+                }
+                eventPublisher.publishEvent(FlightEvent.statusChanged(flight, reached));
+            }
+            airlineMetrics.statusTransitions(reached.name(), moved.size());
+        });
+    }
+
+    public int getPendingCount() {
+        lock.lock();
+        try {
+            return armed.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Schedule the transition after status, or forget the flight if it has none (caller holds the lock)
+    private void arm(FlightTimes flight, Flight.FlightStatus status) {
+        Flight.FlightStatus next = next(status);
+        if (next == null || flight.departureTime() == null || flight.arrivalTime() == null) {
+            armed.remove(flight.id());
+            return;
+        }
+        Transition transition = new Transition(flight, next);
+        armed.put(flight.id(), transition);
+        wheel.schedule(transition, dueAt(flight, next).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+
+    private LocalDateTime dueAt(FlightTimes flight, Flight.FlightStatus status) {
+        return switch (status) {
+            case BOARDING -> flight.departureTime().minusMinutes(boardingMinutes);
+            case DEPARTED -> flight.departureTime();
+            default -> flight.arrivalTime();
+        };
+    }
+
+    // SCHEDULED and DELAYED flights board next; cancelled, diverted and arrived ones have nothing ahead
+    private static Flight.FlightStatus next(Flight.FlightStatus status) {
+        return switch (status) {
+            case SCHEDULED, DELAYED -> Flight.FlightStatus.BOARDING;
+            case BOARDING -> Flight.FlightStatus.DEPARTED;
+            case DEPARTED -> Flight.FlightStatus.ARRIVED;
+            default -> null;
+        };
+    }
+
+    // Statuses a flight may be in when it moves to status
+    private static List<Flight.FlightStatus> precedingStatuses(Flight.FlightStatus status) {
+        List<Flight.FlightStatus> statuses = new ArrayList<>(List.of(Flight.FlightStatus.SCHEDULED, Flight.FlightStatus.DELAYED));
+        statuses.addAll(PROGRESSION.subList(0, PROGRESSION.indexOf(status)));
+        return statuses;
+    }
+
+    private record Transition(FlightTimes flight, Flight.FlightStatus status) {}
+}
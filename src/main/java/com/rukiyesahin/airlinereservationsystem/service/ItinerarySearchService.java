@@ -0,0 +1,313 @@
+package com.rukiyesahin.airlinereservationsystem.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.rukiyesahin.airlinereservationsystem.entity.Airport;
+import com.rukiyesahin.airlinereservationsystem.entity.Flight;
+import com.rukiyesahin.airlinereservationsystem.exception.InvalidFlightDataException;
+import com.rukiyesahin.airlinereservationsystem.repository.FlightRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Time-dependent flight graph used to find direct and connecting itineraries in memory.
+// Departures are kept per airport and per route in arrays sorted by departure time, so each
+// leg of a search is a binary search instead of a SQL query.
+@Service
+public class ItinerarySearchService {
+
+    private static final Leg[] NO_LEGS = new Leg[0];
+    private static final Comparator<Leg> BY_DEPARTURE =
+            Comparator.comparing(Leg::departureTime).thenComparing(Leg::flightId);
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private AirportCache airportCache;
+
+    @Autowired
+    private SeatInventory seatInventory;
+
+    @Value("${airline.search.min-connection-minutes:45}")
+    private long minConnectionMinutes;
+
+    @Value("${airline.search.max-connection-hours:12}")
+    private long maxConnectionHours;
+
+    @Value("${airline.search.max-stops:2}")
+    private int maxStopsLimit;
+
+    @Value("${airline.search.max-itineraries:50}")
+    private int maxItineraries;
+
+    private final Map<Long, Leg> legsByFlight = new ConcurrentHashMap<>();
+    private final Map<String, Leg[]> departuresByAirport = new ConcurrentHashMap<>();
+    private final Map<String, Leg[]> departuresByRoute = new ConcurrentHashMap<>();
+    // Serialises writers across the schedule query in reload(); readers never take it
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Build the graph from every upcoming flight
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void reload() {
+        lock.lock();
+        try {
+            Map<String, List<Leg>> byAirport = new HashMap<>();
+            Map<String, List<Leg>> byRoute = new HashMap<>();
+            legsByFlight.clear();
+            for (Flight flight : flightRepository.findSchedule(LocalDateTime.now())) {
+                Leg leg = toLeg(flight);
+                legsByFlight.put(leg.flightId(), leg);
+                byAirport.computeIfAbsent(leg.departureCode(), code -> new ArrayList<>()).add(leg);
+                byRoute.computeIfAbsent(routeKey(leg.departureCode(), leg.arrivalCode()), key -> new ArrayList<>()).add(leg);
+            }
+            departuresByAirport.clear();
+            departuresByRoute.clear();
+            byAirport.forEach((code, legs) -> departuresByAirport.put(code, sorted(legs)));
+            byRoute.forEach((key, legs) -> departuresByRoute.put(key, sorted(legs)));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Apply a created, updated, delayed or cancelled flight to the graph. Inside a transaction the
+    // change is only applied once it commits, so a rollback never leaves the graph ahead of the table.
+    public void refresh(Flight flight) {
+        Long flightId = flight.getId();
+        Leg leg = isSearchable(flight.getStatus()) ? toLeg(flight) : null;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(flightId, leg);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(flightId, leg);
+            }
+        });
+    }
+
+    private void apply(Long flightId, Leg leg) {
+        lock.lock();
+        try {
+            removeLeg(flightId);
+            if (leg == null) {
+                return;
+            }
+            legsByFlight.put(leg.flightId(), leg);
+            departuresByAirport.put(leg.departureCode(), with(departuresByAirport.get(leg.departureCode()), leg));
+            String key = routeKey(leg.departureCode(), leg.arrivalCode());
+            departuresByRoute.put(key, with(departuresByRoute.get(key), leg));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Drop a flight that can no longer be booked, e.g. once it is boarding
+    public void remove(Long flightId) {
+        lock.lock();
+        try {
+            removeLeg(flightId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void removeLeg(Long flightId) {
+        Leg previous = legsByFlight.remove(flightId);
+        if (previous != null) {
+            departuresByAirport.put(previous.departureCode(),
+                    without(departuresByAirport.get(previous.departureCode()), previous));
+            String key = routeKey(previous.departureCode(), previous.arrivalCode());
+            departuresByRoute.put(key, without(departuresByRoute.get(key), previous));
+        }
+    }
+
+    // Find itineraries with up to maxStops connections departing within a day of departureDate
+    public List<Itinerary> search(String departureCode, String arrivalCode, LocalDateTime departureDate, int maxStops) {
+        if (departureCode.equalsIgnoreCase(arrivalCode)) {
+            throw new InvalidFlightDataException("Departure and arrival airports must be different");
+        }
+        String origin = departureCode.toUpperCase();
+        String destination = arrivalCode.toUpperCase();
+        int stops = Math.max(0, Math.min(maxStops, maxStopsLimit));
+
+        List<Itinerary> results = new ArrayList<>();
+        Leg[] path = new Leg[stops + 1];
+        Leg[] firstLegs = departuresByAirport.getOrDefault(origin, NO_LEGS);
+        LocalDateTime lastDeparture = departureDate.plusDays(1);
+        for (int i = lowerBound(firstLegs, departureDate); i < firstLegs.length; i++) {
+            Leg first = firstLegs[i];
+            if (first.departureTime().isAfter(lastDeparture)) {
+                break;
+            }
+            if (!hasSeats(first)) {
+                continue;
+            }
+            path[0] = first;
+            if (first.arrivalCode().equals(destination)) {
+                results.add(toItinerary(path, 1));
+            } else if (stops > 0) {
+                extend(path, 1, stops, origin, destination, results);
+            }
+        }
+
+        results.sort(Comparator.comparing(Itinerary::arrivalTime)
+                .thenComparingInt(Itinerary::stops)
+                .thenComparing(Itinerary::departureTime));
+        return results.size() > maxItineraries ? new ArrayList<>(results.subList(0, maxItineraries)) : results;
+    }
+
+    private void extend(Leg[] path, int depth, int maxStops, String origin, String destination, List<Itinerary> results) {
+        Leg previous = path[depth - 1];
+        LocalDateTime earliest = previous.arrivalTime().plusMinutes(minConnectionMinutes);
+        LocalDateTime latest = previous.arrivalTime().plusHours(maxConnectionHours);
+
+        // Final leg: only look at flights on the route to the destination
+        Leg[] toDestination = departuresByRoute.getOrDefault(routeKey(previous.arrivalCode(), destination), NO_LEGS);
+        for (int i = lowerBound(toDestination, earliest); i < toDestination.length; i++) {
+            Leg leg = toDestination[i];
+            if (leg.departureTime().isAfter(latest)) {
+                break;
+            }
+            if (!hasSeats(leg)) {
+                continue;
+            }
+            path[depth] = leg;
+            results.add(toItinerary(path, depth + 1));
+        }
+
+        if (depth >= maxStops) {
+            return;
+        }
+        Leg[] onward = departuresByAirport.getOrDefault(previous.arrivalCode(), NO_LEGS);
+        for (int i = lowerBound(onward, earliest); i < onward.length; i++) {
+            Leg leg = onward[i];
+            if (leg.departureTime().isAfter(latest)) {
+                break;
+            }
+            if (leg.arrivalCode().equals(destination) || visits(path, depth, origin, leg.arrivalCode())
+                    || !hasSeats(leg)) {
+                continue;
+            }
+            path[depth] = leg;
+            extend(path, depth + 1, maxStops, origin, destination, results);
+        }
+    }
+
+    // Sold-out legs stay in the graph, a released seat makes them bookable again
+    private boolean hasSeats(Leg leg) {
+        return seatInventory.getAvailableSeats(leg.flightId(), leg.indexedSeats()) > 0;
+    }
+
+    private static boolean visits(Leg[] path, int depth, String origin, String airportCode) {
+        if (origin.equals(airportCode)) {
+            return true;
+        }
+        for (int i = 0; i < depth; i++) {
+            if (path[i].arrivalCode().equals(airportCode)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Itinerary toItinerary(Leg[] path, int length) {
+        List<Leg> legs = List.of(Arrays.copyOf(path, length));
+        LocalDateTime departure = legs.get(0).departureTime();
+        LocalDateTime arrival = legs.get(length - 1).arrivalTime();
+        return new Itinerary(legs, length - 1, departure, arrival, Duration.between(departure, arrival).toMinutes());
+    }
+
+    private static int lowerBound(Leg[] legs, LocalDateTime time) {
+        int low = 0;
+        int high = legs.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (legs[mid].departureTime().isBefore(time)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static Leg[] sorted(List<Leg> legs) {
+        Leg[] array = legs.toArray(NO_LEGS);
+        Arrays.sort(array, BY_DEPARTURE);
+        return array;
+    }
+
+    private static Leg[] with(Leg[] legs, Leg leg) {
+        Leg[] current = legs != null ? legs : NO_LEGS;
+        int index = Arrays.binarySearch(current, leg, BY_DEPARTURE);
+        int insertAt = index >= 0 ? index : -index - 1;
+        Leg[] updated = new Leg[current.length + 1];
+        System.arraycopy(current, 0, updated, 0, insertAt);
+        updated[insertAt] = leg;
+        System.arraycopy(current, insertAt, updated, insertAt + 1, current.length - insertAt);
+        return updated;
+    }
+
+    private static Leg[] without(Leg[] legs, Leg leg) {
+        if (legs == null) {
+            return NO_LEGS;
+        }
+        int index = Arrays.binarySearch(legs, leg, BY_DEPARTURE);
+        if (index < 0) {
+            return legs;
+        }
+        Leg[] updated = new Leg[legs.length - 1];
+        System.arraycopy(legs, 0, updated, 0, index);
+        System.arraycopy(legs, index + 1, updated, index, legs.length - index - 1);
+        return updated;
+    }
+
+    private Leg toLeg(Flight flight) {
+        return new Leg(flight.getId(), flight.getFlightNumber(),
+                codeOf(flight.getDepartureAirport()), codeOf(flight.getArrivalAirport()),
+                flight.getDepartureTime(), flight.getArrivalTime(), flight.getAvailableSeats());
+    }
+
+    // Flights created through the API may only carry the airport id
+    private String codeOf(Airport airport) {
+        return airportCache.codeOf(airport)
+                .orElseThrow(() -> new InvalidFlightDataException("Airport not found with ID: " + airport.getId()));
+    }
+
+    // Only flights open for booking, as in SeatInventory and the flight search queries
+    private static boolean isSearchable(Flight.FlightStatus status) {
+        return Flight.FlightStatus.SCHEDULED.equals(status);
+    }
+
+    private static String routeKey(String departureCode, String arrivalCode) {
+        return departureCode + '-' + arrivalCode;
+    }
+
+    public record Leg(Long flightId, String flightNumber, String departureCode, String arrivalCode,
+                      LocalDateTime departureTime, LocalDateTime arrivalTime,
+                      // Seats on the flight when the leg was indexed, for flights SeatInventory has not loaded
+                      @JsonIgnore int indexedSeats) {
+    }
+
+    public record Itinerary(List<Leg> legs, int stops, LocalDateTime departureTime, LocalDateTime arrivalTime,
+                            long durationMinutes) {
+    }
+}
@@ -0,0 +1,95 @@
+package com.rukiyesahin.airlinereservationsystem.service;
+
+import com.rukiyesahin.airlinereservationsystem.exception.InvalidPageTokenException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+// Page sizes and continuation tokens for keyset pagination.
+// A token holds the sort key of the last row returned, so the next page starts with a
+// "WHERE key > :last" seek on an index instead of an OFFSET scan. Tokens are scoped to the
+// listing that issued them and are Base64 encoded so clients treat them as opaque.
+@Component
+public class KeysetPagination {
+
+    private static final char SEPARATOR = '|';
+
+    @Value("${airline.pagination.default-page-size:50}")
+    private int defaultPageSize;
+
+    @Value("${airline.pagination.max-page-size:200}")
+    private int maxPageSize;
+
+    // Requested page size clamped to [1, max-page-size]
+    public int pageSize(Integer requested) {
+        if (requested == null) {
+            return Math.min(defaultPageSize, maxPageSize);
+        }
+        return Math.max(1, Math.min(requested, maxPageSize));
+    }
+
+    // Turn size + 1 fetched rows into a page, the extra row only tells whether more exist
+    public <T> CursorPage<T> page(List<T> rows, int size, Function<T, String> cursorOf) {
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null, false);
+        }
+        List<T> items = new ArrayList<>(rows.subList(0, size));
+        return new CursorPage<>(items, cursorOf.apply(items.get(size - 1)), true);
+    }
+
+    public String encodeId(String scope, Long id) {
+        return encode(scope + SEPARATOR + id);
+    }
+
+    public Long decodeId(String scope, String token) {
+        String[] parts = decode(scope, token, 1);
+        try {
+            return Long.valueOf(parts[0]);
+        } catch (NumberFormatException e) {
+            throw new InvalidPageTokenException("Invalid page cursor", e);
+        }
+    }
+
+    public String encodeTimeAndId(String scope, LocalDateTime time, Long id) {
+        return encode(scope + SEPARATOR + time + SEPARATOR + id);
+    }
+
+    public TimeAndId decodeTimeAndId(String scope, String token) {
+        String[] parts = decode(scope, token, 2);
+        try {
+            return new TimeAndId(LocalDateTime.parse(parts[0]), Long.valueOf(parts[1]));
+        } catch (RuntimeException e) {
+            throw new InvalidPageTokenException("Invalid page cursor", e);
+        }
+    }
+
+    private static String encode(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Returns the key parts after checking the token was issued for this listing
+    private static String[] decode(String scope, String token, int keyParts) {
+        String value;
+        try {
+            value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidPageTokenException("Invalid page cursor", e);
+        }
+        String[] parts = value.split("\\" + SEPARATOR, -1);
+        if (parts.length != keyParts + 1 || !parts[0].equals(scope)) {
+            throw new InvalidPageTokenException("Page cursor does not belong to this listing");
+        }
+        String[] key = new String[keyParts];
+        System.arraycopy(parts, 1, key, 0, keyParts);
+        return key;
+    }
+
+    public record TimeAndId(LocalDateTime time, Long id) {
+    }
+}
@@ -0,0 +1,127 @@
+package com.rukiyesahin.airlinereservationsystem.service;
+
+import com.rukiyesahin.airlinereservationsystem.dto.MaintenanceSlot;
+import com.rukiyesahin.airlinereservationsystem.entity.Aircraft;
+import com.rukiyesahin.airlinereservationsystem.exception.InvalidAircraftDataException;
+import com.rukiyesahin.airlinereservationsystem.repository.AircraftRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+// Proposes a hangar slot for every active aircraft whose maintenance falls due within the horizon.
+// Aircraft are taken earliest deadline first from a priority queue, and each gets the earliest
+// gap between its flights that is long enough and where the hangar has a free bay, so the most
+// urgent aircraft get first pick of both. The plan is only proposed, nothing is written.
+@Service
+@Transactional(readOnly = true)
+public class MaintenancePlanner {
+
+    @Autowired
+    private AircraftRepository aircraftRepository;
+
+    @Autowired
+    private AircraftRotationIndex aircraftRotationIndex;
+
+    @Value("${airline.maintenance.duration-hours:8}")
+    private int durationHours;
+
+    @Value("${airline.maintenance.hangar-bays:2}")
+    private int hangarBays;
+
+    @Value("${airline.maintenance.horizon-days:30}")
+    private int defaultHorizonDays;
+
+    @Value("${airline.maintenance.max-horizon-days:365}")
+    private int maxHorizonDays;
+
+    @PostConstruct
+    public void validateSettings() {
+        if (hangarBays < 1) {
+            throw new IllegalStateException("airline.maintenance.hangar-bays must be at least 1 but was " + hangarBays);
+        }
+    }
+
+    // Plan every aircraft due within horizonDays, overdue ones included, ordered by slot start
+    public List<MaintenanceSlot> plan(Integer horizonDays) {
+        int days = horizonDays == null ? defaultHorizonDays : horizonDays;
+        if (days < 1 || days > maxHorizonDays) {
+            throw new InvalidAircraftDataException("Horizon must be between 1 and " + maxHorizonDays + " days");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        PriorityQueue<Aircraft> byDeadline = new PriorityQueue<>(Comparator.comparing(Aircraft::getNextMaintenance)
+                .thenComparing(Aircraft::getId));
+        for (Aircraft aircraft : aircraftRepository.findAircraftNeedingMaintenance(now.plusDays(days))) {
+            if (aircraft.isActive()) {
+                byDeadline.add(aircraft);
+            }
+        }
+
+        Duration duration = Duration.ofHours(durationHours);
+        List<MaintenanceSlot> slots = new ArrayList<>(byDeadline.size());
+        while (!byDeadline.isEmpty()) {
+            Aircraft aircraft = byDeadline.poll();
+            LocalDateTime start = earliestSlot(aircraft.getId(), now, duration, slots);
+            slots.add(new MaintenanceSlot(aircraft.getId(), aircraft.getRegistration(), aircraft.getNextMaintenance(),
+                    start, start.plus(duration), start.isAfter(aircraft.getNextMaintenance())));
+        }
+        slots.sort(Comparator.comparing(MaintenanceSlot::start).thenComparing(MaintenanceSlot::aircraftId));
+        return slots;
+    }
+
+    public Duration getDuration() {
+        return Duration.ofHours(durationHours);
+    }
+
+    // Alternate between the aircraft's next ground gap and the next free hangar bay until both agree
+    private LocalDateTime earliestSlot(Long aircraftId, LocalDateTime from, Duration duration, List<MaintenanceSlot> planned) {
+        LocalDateTime start = from;
+        while (true) {
+            start = aircraftRotationIndex.findGap(aircraftId, start, duration);
+            LocalDateTime end = start.plus(duration);
+            List<MaintenanceSlot> overlapping = new ArrayList<>();
+            for (MaintenanceSlot slot : planned) {
+                if (slot.start().isBefore(end) && slot.end().isAfter(start)) {
+                    overlapping.add(slot);
+                }
+            }
+            if (peakOccupancy(overlapping, start) < hangarBays) {
+                return start;
+            }
+            // All bays are taken at some point of the window, and stay so for any start before the first
+            // of these slots ends; retry from there
+            start = overlapping.stream().map(MaintenanceSlot::end).min(Comparator.naturalOrder()).orElseThrow();
+        }
+    }
+
+    // Most slots in the hangar at the same time; slots that end as another starts share a bay
+    private static int peakOccupancy(List<MaintenanceSlot> slots, LocalDateTime from) {
+        List<LocalDateTime> starts = new ArrayList<>(slots.size());
+        List<LocalDateTime> ends = new ArrayList<>(slots.size());
+        for (MaintenanceSlot slot : slots) {
+            starts.add(slot.start().isBefore(from) ? from : slot.start());
+            ends.add(slot.end());
+        }
+        starts.sort(Comparator.naturalOrder());
+        ends.sort(Comparator.naturalOrder());
+        int peak = 0;
+        int occupied = 0;
+        int ended = 0;
+        for (LocalDateTime start : starts) {
+            while (!ends.get(ended).isAfter(start)) {
+                ended++;
+                occupied--;
+            }
+            peak = Math.max(peak, ++occupied);
+        }
+        return peak;
+    }
+}
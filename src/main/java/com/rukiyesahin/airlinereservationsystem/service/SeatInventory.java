@@ -0,0 +1,211 @@
+package com.rukiyesahin.airlinereservationsystem.service;
+
+import com.rukiyesahin.airlinereservationsystem.dto.FlightEvent;
+import com.rukiyesahin.airlinereservationsystem.entity.Flight;
+import com.rukiyesahin.airlinereservationsystem.exception.FlightNotFoundException;
+import com.rukiyesahin.airlinereservationsystem.repository.FlightRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+// In-memory seat counters for flights being booked. Seats are taken with compare-and-set,
+// so concurrent bookings never oversell, and changed counters are written back in batches.
+@Component
+public class SeatInventory {
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private final ConcurrentHashMap<Long, FlightSeats> flights = new ConcurrentHashMap<>();
+    private final Set<Long> dirtyFlights = ConcurrentHashMap.newKeySet();
+    // Held across the JDBC writes in flush(); a monitor would pin a virtual thread to its carrier
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    // Take one seat, returns false if the flight is closed for booking or full
+    public boolean tryBookSeat(Long flightId) {
+        FlightSeats seats = seatsFor(flightId);
+        if (!seats.bookable || !seats.tryAcquire()) {
+            return false;
+        }
+        dirtyFlights.add(flightId);
+        return true;
+    }
+
+    // Give one seat back, never above the flight's total seats; returns false if nothing was released
+    public boolean releaseSeat(Long flightId) {
+        if (!seatsFor(flightId).tryRelease()) {
+            return false;
+        }
+        dirtyFlights.add(flightId);
+        return true;
+    }
+
+    // Current seat count, including bookings that have not been flushed yet
+    public int getAvailableSeats(Long flightId) {
+        return seatsFor(flightId).available.get();
+    }
+
+    // Current seat count if the flight's counter is in memory, else the count last read from the table
+    public int getAvailableSeats(Long flightId, int persistedSeats) {
+        FlightSeats seats = flights.get(flightId);
+        return seats != null ? seats.available.get() : persistedSeats;
+    }
+
+    // Align a flight entity that is about to be saved with the in-memory counter
+    public void sync(Flight flight) {
+        FlightSeats seats = flights.get(flight.getId());
+        if (seats == null) {
+            return;
+        }
+        boolean wasBookable = seats.bookable;
+        seats.bookable = isBookable(flight);
+        flight.setAvailableSeats(seats.available.get());
+        Long flightId = flight.getId();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            dirtyFlights.add(flightId);
+            return;
+        }
+        // The save commits the count copied here, over anything the flusher wrote meanwhile,
+        // so the counter is written again once that commit is done
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    seats.bookable = wasBookable;
+                }
+                dirtyFlights.add(flightId);
+            }
+        });
+    }
+
+    // Write changed counters back to the flights table, one flush at a time so a caller
+    // returning from flush() knows every earlier booking has been committed. Each flight whose
+    // count moved is then announced once, however many seats changed since the last flush.
+    @Scheduled(fixedDelayString = "${airline.inventory.flush-interval-ms:200}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            if (dirtyFlights.isEmpty()) {
+                return;
+            }
+            List<Long> batch = new ArrayList<>(dirtyFlights.size());
+            for (Long flightId : dirtyFlights) {
+                dirtyFlights.remove(flightId);
+                batch.add(flightId);
+            }
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                for (Long flightId : batch) {
+                    FlightSeats seats = flights.get(flightId);
+                    if (seats != null) {
+                        flightRepository.updateAvailableSeats(flightId, seats.available.get());
+                    }
+                }
+            });
+            for (Long flightId : batch) {
+                FlightSeats seats = flights.get(flightId);
+                if (seats != null && seats.available.get() != seats.announced) {
+                    seats.announced = seats.available.get();
+                    eventPublisher.publishEvent(FlightEvent.seatsChanged(flightId, seats.flightNumber,
+                            seats.departureCode, seats.arrivalCode, seats.announced));
+                }
+            }
+            // Flights that can no longer be booked do not need a counter any more
+            flights.entrySet().removeIf(entry -> !entry.getValue().bookable && !dirtyFlights.contains(entry.getKey()));
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // Stop bookings on a flight whose status was changed without going through an entity save
+    public void closeBooking(Long flightId) {
+        FlightSeats seats = flights.get(flightId);
+        if (seats != null) {
+            seats.bookable = false;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private FlightSeats seatsFor(Long flightId) {
+        FlightSeats seats = flights.get(flightId);
+        if (seats != null) {
+            return seats;
+        }
+        Flight flight = flightRepository.findById(flightId)
+                .orElseThrow(() -> new FlightNotFoundException("Flight not found with ID: " + flightId));
+        FlightSeats loaded = new FlightSeats(flight, isBookable(flight));
+        FlightSeats existing = flights.putIfAbsent(flightId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    private static boolean isBookable(Flight flight) {
+        return Flight.FlightStatus.SCHEDULED.equals(flight.getStatus());
+    }
+
+    private static final class FlightSeats {
+        private final int totalSeats;
+        private final AtomicInteger available;
+        private volatile boolean bookable;
+        // Route for seat change events, and the count last announced (only touched under flushLock)
+        private final String flightNumber;
+        private final String departureCode;
+        private final String arrivalCode;
+        private int announced;
+
+        private FlightSeats(Flight flight, boolean bookable) {
+            Integer totalSeats = flight.getTotalSeats();
+            Integer availableSeats = flight.getAvailableSeats();
+            this.totalSeats = totalSeats != null ? totalSeats : 0;
+            this.available = new AtomicInteger(availableSeats != null ? availableSeats : this.totalSeats);
+            this.bookable = bookable;
+            this.flightNumber = flight.getFlightNumber();
+            this.departureCode = flight.getDepartureAirport().getCode();
+            this.arrivalCode = flight.getArrivalAirport().getCode();
+            this.announced = this.available.get();
+        }
+
+        private boolean tryAcquire() {
+            int current;
+            do {
+                current = available.get();
+                if (current <= 0) {
+                    return false;
+                }
+            } while (!available.compareAndSet(current, current - 1));
+            return true;
+        }
+
+        private boolean tryRelease() {
+            int current;
+            do {
+                current = available.get();
+                if (current >= totalSeats) {
+                    return false;
+                }
+            } while (!available.compareAndSet(current, current + 1));
+            return true;
+        }
+    }
+}
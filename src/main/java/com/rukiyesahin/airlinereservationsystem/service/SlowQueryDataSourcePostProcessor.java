@@ -0,0 +1,257 @@
+package com.rukiyesahin.airlinereservationsystem.service;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+// Wraps the DataSource in JDK proxies that time every statement for the slow-query log.
+// A query's duration is its execute call plus the time spent in ResultSet.next(), so rows
+// fetched lazily are counted but the time Hibernate spends building entities is not.
+@Component
+@ConditionalOnProperty(name = "airline.slow-query.enabled", havingValue = "true")
+public class SlowQueryDataSourcePostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<SlowQueryRecorder> slowQueryRecorder;
+
+    public SlowQueryDataSourcePostProcessor(ObjectProvider<SlowQueryRecorder> slowQueryRecorder) {
+        this.slowQueryRecorder = slowQueryRecorder;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !Proxy.isProxyClass(bean.getClass())) {
+            return proxy(DataSource.class, new DataSourceHandler(dataSource, slowQueryRecorder.getObject()));
+        }
+        return bean;
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(SlowQueryDataSourcePostProcessor.class.getClassLoader(),
+                new Class<?>[] {type}, handler));
+    }
+
+    // Forwards every call to the target; equals and hashCode stay on the proxy
+    private abstract static class ForwardingHandler implements InvocationHandler {
+        private final Object target;
+
+        ForwardingHandler(Object target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return handle(method, args);
+            }
+        }
+
+        abstract Object handle(Method method, Object[] args) throws Throwable;
+
+        Object forward(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getCause();
+            }
+        }
+    }
+
+    private static final class DataSourceHandler extends ForwardingHandler {
+        private final SlowQueryRecorder recorder;
+
+        DataSourceHandler(DataSource target, SlowQueryRecorder recorder) {
+            super(target);
+            this.recorder = recorder;
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            Object result = forward(method, args);
+            if (result instanceof Connection connection) {
+                return proxy(Connection.class, new ConnectionHandler(connection, recorder));
+            }
+            return result;
+        }
+    }
+
+    private static final class ConnectionHandler extends ForwardingHandler {
+        private final SlowQueryRecorder recorder;
+
+        ConnectionHandler(Connection target, SlowQueryRecorder recorder) {
+            super(target);
+            this.recorder = recorder;
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            Object result = forward(method, args);
+            String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+            if (result instanceof CallableStatement statement) {
+                return proxy(CallableStatement.class, new StatementHandler(statement, sql, recorder));
+            } else if (result instanceof PreparedStatement statement) {
+                return proxy(PreparedStatement.class, new StatementHandler(statement, sql, recorder));
+            } else if (result instanceof Statement statement) {
+                return proxy(Statement.class, new StatementHandler(statement, null, recorder));
+            }
+            return result;
+        }
+    }
+
+    private static final class StatementHandler extends ForwardingHandler {
+        private final Statement statement;
+        private final String preparedSql;
+        private final SlowQueryRecorder recorder;
+        private final List<String> parameterTypes = new ArrayList<>();
+        private int batchSize;
+        private ResultSetHandler openResultSet;
+
+        StatementHandler(Statement target, String preparedSql, SlowQueryRecorder recorder) {
+            super(target);
+            this.statement = target;
+            this.preparedSql = preparedSql;
+            this.recorder = recorder;
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                return execute(method, args);
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                bind(index, name.equals("setNull") || args[1] == null ? "null" : args[1].getClass().getSimpleName());
+            } else if (name.equals("addBatch")) {
+                batchSize++;
+            } else if (name.equals("clearBatch")) {
+                batchSize = 0;
+            } else if (name.equals("clearParameters")) {
+                parameterTypes.clear();
+            } else if (name.equals("close")) {
+                finishResultSet();
+            }
+            return forward(method, args);
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : preparedSql;
+            String shape = parameterShape();
+            finishResultSet();
+            long start = System.nanoTime();
+            Object result = forward(method, args);
+            long elapsed = System.nanoTime() - start;
+            batchSize = 0;
+            if (sql == null) {
+                return result;
+            }
+            if (result instanceof ResultSet resultSet) {
+                openResultSet = new ResultSetHandler(resultSet, sql, shape, elapsed, recorder);
+                return proxy(ResultSet.class, openResultSet);
+            }
+            recorder.record(sql, shape, rowCount(result), elapsed);
+            return result;
+        }
+
+        private long rowCount(Object result) throws Exception {
+            if (result instanceof Number count) {
+                return count.longValue();
+            } else if (result instanceof int[] counts) {
+                long rows = 0;
+                for (int count : counts) {
+                    rows += Math.max(count, 0);
+                }
+                return rows;
+            } else if (result instanceof long[] counts) {
+                long rows = 0;
+                for (long count : counts) {
+                    rows += Math.max(count, 0);
+                }
+                return rows;
+            } else if (Boolean.FALSE.equals(result)) {
+                return statement.getUpdateCount();
+            }
+            return -1;
+        }
+
+        private void bind(int index, String type) {
+            while (parameterTypes.size() < index) {
+                parameterTypes.add("?");
+            }
+            parameterTypes.set(index - 1, type);
+        }
+
+        // (Long, String, null), with the batch size appended for batched statements
+        private String parameterShape() {
+            String shape = "(" + String.join(", ", parameterTypes) + ")";
+            return batchSize > 1 ? shape + " x " + batchSize : shape;
+        }
+
+        private void finishResultSet() {
+            if (openResultSet != null) {
+                openResultSet.finish();
+                openResultSet = null;
+            }
+        }
+    }
+
+    // Counts rows and fetch time, and records the query when the result set is closed
+    private static final class ResultSetHandler extends ForwardingHandler {
+        private final String sql;
+        private final String parameterTypes;
+        private final SlowQueryRecorder recorder;
+        private long durationNanos;
+        private long rows;
+        private boolean finished;
+
+        ResultSetHandler(ResultSet target, String sql, String parameterTypes, long executeNanos,
+                         SlowQueryRecorder recorder) {
+            super(target);
+            this.sql = sql;
+            this.parameterTypes = parameterTypes;
+            this.durationNanos = executeNanos;
+            this.recorder = recorder;
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            if (method.getName().equals("next")) {
+                long start = System.nanoTime();
+                Object hasRow = forward(method, args);
+                durationNanos += System.nanoTime() - start;
+                if (Boolean.TRUE.equals(hasRow)) {
+                    rows++;
+                }
+                return hasRow;
+            }
+            if (method.getName().equals("close")) {
+                finish();
+            }
+            return forward(method, args);
+        }
+
+        void finish() {
+            if (!finished) {
+                finished = true;
+                recorder.record(sql, parameterTypes, rows, durationNanos);
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.rukiyesahin.airlinereservationsystem.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// In-memory log of the most recent statements that ran longer than the threshold.
+// Only the SQL, the types of the bound parameters and the row count are kept, never the values.
+@Component
+public class SlowQueryRecorder {
+
+    @Value("${airline.slow-query.enabled:false}")
+    private boolean enabled;
+
+    @Value("${airline.slow-query.threshold-ms:100}")
+    private long thresholdMs;
+
+    @Value("${airline.slow-query.capacity:500}")
+    private int capacity;
+
+    private final Deque<SlowQuery> slowQueries = new ArrayDeque<>();
+    private final LongAdder statements = new LongAdder();
+    private final LongAdder slowStatements = new LongAdder();
+
+    // Called by the JDBC proxy once a statement and its result set are done
+    public void record(String sql, String parameterTypes, long rows, long durationNanos) {
+        statements.increment();
+        if (durationNanos < TimeUnit.MILLISECONDS.toNanos(thresholdMs)) {
+            return;
+        }
+        slowStatements.increment();
+        SlowQuery slowQuery = new SlowQuery(sql, parameterTypes, rows, durationNanos / 1_000_000.0, LocalDateTime.now());
+        synchronized (slowQueries) {
+            if (slowQueries.size() >= capacity) {
+                slowQueries.removeLast();
+            }
+            slowQueries.addFirst(slowQuery);
+        }
+    }
+
+    // Newest first
+    public List<SlowQuery> getSlowQueries(int limit) {
+        synchronized (slowQueries) {
+            return slowQueries.stream().limit(Math.max(limit, 0)).toList();
+        }
+    }
+
+    // Retained slow queries grouped by SQL, the statements costing the most time first
+    public List<SlowStatement> getSlowStatements() {
+        Map<String, SlowStatement> bySql = new LinkedHashMap<>();
+        for (SlowQuery slowQuery : getSlowQueries(Integer.MAX_VALUE)) {
+            bySql.merge(slowQuery.sql(), SlowStatement.of(slowQuery), SlowStatement::merge);
+        }
+        List<SlowStatement> statements = new ArrayList<>(bySql.values());
+        statements.sort(Comparator.comparingDouble(SlowStatement::totalDurationMs).reversed());
+        return statements;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("thresholdMs", thresholdMs);
+        stats.put("statements", statements.sum());
+        stats.put("slowStatements", slowStatements.sum());
+        synchronized (slowQueries) {
+            stats.put("retained", slowQueries.size());
+        }
+        stats.put("capacity", capacity);
+        return stats;
+    }
+
+    public void clear() {
+        synchronized (slowQueries) {
+            slowQueries.clear();
+        }
+        statements.reset();
+        slowStatements.reset();
+    }
+
+    public record SlowQuery(String sql, String parameterTypes, long rows, double durationMs,
+                            LocalDateTime executedAt) {
+    }
+
+    public record SlowStatement(String sql, long count, double totalDurationMs, double maxDurationMs,
+                                long maxRows, LocalDateTime lastExecutedAt) {
+
+        private static SlowStatement of(SlowQuery slowQuery) {
+            return new SlowStatement(slowQuery.sql(), 1, slowQuery.durationMs(), slowQuery.durationMs(),
+                    slowQuery.rows(), slowQuery.executedAt());
+        }
+
+        // Queries are visited newest first, so the first lastExecutedAt is kept
+        private SlowStatement merge(SlowStatement older) {
+            return new SlowStatement(sql, count + older.count, totalDurationMs + older.totalDurationMs,
+                    Math.max(maxDurationMs, older.maxDurationMs), Math.max(maxRows, older.maxRows), lastExecutedAt);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.rukiyesahin.airlinereservationsystem.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+// Hierarchical timing wheel: four levels of 64 slots, where one slot of a level spans a full
+// rotation of the level below. Scheduling is O(1), and each tick only looks at one level-0
+// slot; a higher-level slot is cascaded down once, when the levels below wrap around to it.
+// With one-second ticks the wheel covers about 194 days, anything later waits in an overflow
+// queue. Not thread-safe, callers hold their own lock.
+final class TimingWheel<T> {
+
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int LEVELS = 4;
+    private static final long HORIZON = 1L << (BITS * LEVELS);
+
+    private final long tickMs;
+    private final List<List<Timer<T>>> slots = new ArrayList<>(LEVELS * SLOTS);
+    private final PriorityQueue<Timer<T>> overflow = new PriorityQueue<>(Comparator.comparingLong(Timer::tick));
+    private final List<T> due = new ArrayList<>();
+    private long currentTick;
+    private int size;
+
+    TimingWheel(long tickMs, long nowMs) {
+        this.tickMs = tickMs;
+        this.currentTick = nowMs / tickMs;
+        for (int i = 0; i < LEVELS * SLOTS; i++) {
+            slots.add(new ArrayList<>());
+        }
+    }
+
+    // Fire item on the first tick at or after expiresAtMs; times already passed fire on the next advance
+    void schedule(T item, long expiresAtMs) {
+        size++;
+        place(new Timer<>(item, Math.floorDiv(expiresAtMs + tickMs - 1, tickMs)));
+    }
+
+    // Step the wheel up to nowMs and return everything that expired on the way
+    List<T> advanceTo(long nowMs) {
+        long targetTick = nowMs / tickMs;
+        while (currentTick < targetTick) {
+            currentTick++;
+            // Higher levels first, so their timers can land in the level-0 slot handled below
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (BITS * level)) - 1)) == 0) {
+                    cascade(level);
+                }
+            }
+            while (!overflow.isEmpty() && overflow.peek().tick() - currentTick < HORIZON) {
+                place(overflow.poll());
+            }
+            List<Timer<T>> slot = slot(0, currentTick);
+            for (Timer<T> timer : slot) {
+                due.add(timer.item());
+            }
+            slot.clear();
+        }
+        List<T> expired = new ArrayList<>(due);
+        size -= expired.size();
+        due.clear();
+        return expired;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void place(Timer<T> timer) {
+        long delta = timer.tick() - currentTick;
+        if (delta <= 0) {
+            due.add(timer.item());
+            return;
+        }
+        for (int level = 0; level < LEVELS; level++) {
+            if (delta < 1L << (BITS * (level + 1))) {
+                slot(level, timer.tick()).add(timer);
+                return;
+            }
+        }
+        overflow.add(timer);
+    }
+
+    private void cascade(int level) {
+        List<Timer<T>> slot = slot(level, currentTick);
+        List<Timer<T>> timers = new ArrayList<>(slot);
+        slot.clear();
+        timers.forEach(this::place);
+    }
+
+    private List<Timer<T>> slot(int level, long tick) {
+        int index = (int) ((tick >>> (BITS * level)) & (SLOTS - 1));
+        return slots.get(level * SLOTS + index);
+    }
+
+    private record Timer<T>(T item, long tick) {}
+}
@@ -0,0 +1,136 @@
+package com.rukiyesahin.airlinereservationsystem.controller;
+
+import com.rukiyesahin.airlinereservationsystem.entity.Aircraft;
+import com.rukiyesahin.airlinereservationsystem.entity.Airport;
+import com.rukiyesahin.airlinereservationsystem.entity.Flight;
+import com.rukiyesahin.airlinereservationsystem.repository.AircraftRepository;
+import com.rukiyesahin.airlinereservationsystem.repository.AirportRepository;
+import com.rukiyesahin.airlinereservationsystem.repository.FlightRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Fails when a flight list endpoint loads airports or aircraft row by row (N+1 selects)
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:querycount",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class FlightControllerQueryCountTest {
+
+    // One query for the flights plus at most two airport lookups on a cold cache
+    private static final long MAX_STATEMENTS_PER_REQUEST = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AirportRepository airportRepository;
+
+    @Autowired
+    private AircraftRepository aircraftRepository;
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long flightId;
+    private Long aircraftId;
+
+    // Every flight has its own airports and aircraft, so lazy loading would cost a query per row
+    @BeforeAll
+    void seedFlights() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Flight> flights = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Airport departure = airportRepository.save(new Airport("QD" + i, "Departure " + i, "Istanbul", "TR"));
+            Airport arrival = airportRepository.save(new Airport("QA" + i, "Arrival " + i, "Berlin", "DE"));
+            Aircraft aircraft = aircraftRepository.save(new Aircraft("TC-Q" + i, "Narrow-body", "Airbus", "A320", 180, 150, 24, 6));
+            aircraftId = aircraft.getId();
+            // Mix of overdue, departing soon and later flights
+            LocalDateTime departureTime = now.plusMinutes(i < 2 ? -90 : i < 4 ? 60 : 60L * 24 * i);
+            Flight flight = new Flight("QC" + i, departure, arrival, departureTime, departureTime.plusHours(3),
+                    180, BigDecimal.valueOf(100 + i));
+            flight.setBusinessClassPrice(BigDecimal.valueOf(250 + i));
+            flight.setFirstClassPrice(BigDecimal.valueOf(400 + i));
+            flight.setAircraft(aircraft);
+            flights.add(flightRepository.save(flight));
+        }
+        flightId = flights.get(6).getId();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            flightRepository.updateAvailableSeats(flights.get(4).getId(), 0);
+            flightRepository.updateAvailableSeats(flights.get(5).getId(), -1);
+        });
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "/api/flights",
+            "/api/flights/available",
+            "/api/flights/status/SCHEDULED",
+            "/api/flights/departing-soon",
+            "/api/flights/price-range?minPrice=0&maxPrice=1000",
+            "/api/flights/affordable?maxPrice=1000",
+            "/api/flights/airport/QD3",
+            "/api/flights/country/TR",
+            "/api/flights/city/Berlin",
+            "/api/flights/business-class?maxPrice=1000",
+            "/api/flights/first-class?maxPrice=1000",
+            "/api/flights/fully-booked",
+            "/api/flights/overbooked",
+            "/api/flights/overdue",
+            "/api/flights/number/QC6",
+            "/api/flights/search?departureCode=QD7&arrivalCode=QA7&departureDate=2000-01-01T00:00:00",
+            "/api/flights/search/range?departureCode=QD7&arrivalCode=QA7&startDate=2000-01-01T00:00:00&endDate=2100-01-01T00:00:00"
+    })
+    void listEndpointIssuesConstantNumberOfQueries(String url) throws Exception {
+        assertStatementsAtMost(MAX_STATEMENTS_PER_REQUEST, url);
+    }
+
+    @Test
+    void flightLookupsIssueConstantNumberOfQueries() throws Exception {
+        assertStatementsAtMost(MAX_STATEMENTS_PER_REQUEST, "/api/flights/" + flightId);
+        assertStatementsAtMost(MAX_STATEMENTS_PER_REQUEST, "/api/flights/aircraft/" + aircraftId);
+    }
+
+    private void assertStatementsAtMost(long maxStatements, String url) throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get(url)).andExpect(status().isOk());
+
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements <= maxStatements,
+                url + " issued " + statements + " SQL statements, expected at most " + maxStatements);
+    }
+}
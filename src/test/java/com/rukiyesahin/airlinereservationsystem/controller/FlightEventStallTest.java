@@ -0,0 +1,86 @@
+package com.rukiyesahin.airlinereservationsystem.controller;
+
+import com.rukiyesahin.airlinereservationsystem.dto.FlightEvent;
+import com.rukiyesahin.airlinereservationsystem.service.FlightEventBroadcaster;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// A client that stops reading blocks its sender thread; with a single sender it must be evicted
+// by the send deadline without the subscribers behind it overflowing their buffers
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:flighteventstall",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "airline.events.sender-threads=1",
+        "airline.events.subscriber-buffer=1000",
+        "airline.events.send-timeout-ms=200",
+        "airline.events.stall-check-ms=50"
+})
+class FlightEventStallTest {
+
+    private static final int EVENTS = 2_000;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private FlightEventBroadcaster flightEventBroadcaster;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void stalledSubscriberDoesNotGetTheOthersEvicted() throws Exception {
+        HttpResponse<Stream<String>> reader = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/flights/events")).build(),
+                HttpResponse.BodyHandlers.ofLines());
+        CompletableFuture<Long> received = CompletableFuture.supplyAsync(() ->
+                reader.body().filter(line -> line.startsWith("event:")).limit(EVENTS).count());
+
+        try (Socket stalled = new Socket()) {
+            // Never read, so the server's writes block once the socket buffers are full
+            stalled.setReceiveBufferSize(4096);
+            stalled.connect(new InetSocketAddress("localhost", port));
+            OutputStream request = stalled.getOutputStream();
+            request.write(("GET /api/flights/events HTTP/1.1\r\nHost: localhost\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            request.flush();
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (flightEventBroadcaster.getSubscriberCount() < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(2, flightEventBroadcaster.getSubscriberCount());
+
+            // Large enough to fill the socket buffers well before the last event
+            String flightNumber = "S".repeat(16 * 1024);
+            for (int i = 0; i < EVENTS; i++) {
+                flightEventBroadcaster.broadcast(new FlightEvent(FlightEvent.Type.UPDATED, (long) i, flightNumber,
+                        "STD", "STA", null, null, null, null, null, null, LocalDateTime.now()));
+                Thread.sleep(1);
+            }
+
+            assertEquals(EVENTS, received.get(30, TimeUnit.SECONDS));
+            assertEquals(1, flightEventBroadcaster.getSubscriberCount());
+            assertEquals(1.0, meterRegistry.get("airline.events.evicted").functionCounter().count());
+        } finally {
+            reader.body().close();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.rukiyesahin.airlinereservationsystem.controller;
+
+import com.rukiyesahin.airlinereservationsystem.entity.Airport;
+import com.rukiyesahin.airlinereservationsystem.repository.AirportRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// A flight posted with airport ids only must still reach subscribers filtered by airport code
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:flightevents",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN"
+})
+@AutoConfigureMockMvc
+class FlightEventStreamTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AirportRepository airportRepository;
+
+    @Test
+    void airportSubscriberReceivesFlightCreatedWithAirportIds() throws Exception {
+        Airport departure = airportRepository.save(new Airport("EVD", "Event Departure", "Istanbul", "TR"));
+        Airport arrival = airportRepository.save(new Airport("EVA", "Event Arrival", "Izmir", "TR"));
+        MvcResult stream = mockMvc.perform(get("/api/flights/events").param("airport", "eva"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        LocalDateTime departureTime = LocalDateTime.now().plusDays(2).withNano(0);
+        String body = """
+                {"flightNumber": "EV100",
+                 "departureAirport": {"id": %d},
+                 "arrivalAirport": {"id": %d},
+                 "departureTime": "%s",
+                 "arrivalTime": "%s",
+                 "totalSeats": 150,
+                 "basePrice": 120.00}
+                """.formatted(departure.getId(), arrival.getId(),
+                departureTime.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME),
+                departureTime.plusHours(1).format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        mockMvc.perform(post("/api/flights").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated());
+
+        // Events are written by the broadcaster's sender threads
+        long deadline = System.currentTimeMillis() + 5_000;
+        String events = stream.getResponse().getContentAsString();
+        while (!events.contains("event:CREATED") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            events = stream.getResponse().getContentAsString();
+        }
+        assertTrue(events.contains("event:CREATED"), events);
+        assertTrue(events.contains("\"departureCode\":\"EVD\""), events);
+        assertTrue(events.contains("\"arrivalCode\":\"EVA\""), events);
+    }
+}
@@ -0,0 +1,113 @@
+package com.rukiyesahin.airlinereservationsystem.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Ids must stay unique under contention, across nodes and when the clock misbehaves
+class SnowflakeIdGeneratorTest {
+
+    private static final int THREADS = 8;
+    private static final int IDS_PER_THREAD = 250_000;
+
+    @Test
+    void idsAreUniqueAcrossThreads() throws Exception {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7);
+        long[] ids = generateConcurrently(generator);
+
+        Arrays.sort(ids);
+        for (int i = 1; i < ids.length; i++) {
+            assertTrue(ids[i] > ids[i - 1], "Duplicate id " + ids[i]);
+        }
+        assertTrue(ids[0] > 0);
+    }
+
+    @Test
+    void nodesNeverShareIds() {
+        // Both generators see the same frozen millisecond, the worst case for collisions
+        long frozen = System.currentTimeMillis();
+        SnowflakeIdGenerator first = new SnowflakeIdGenerator(1, () -> frozen);
+        SnowflakeIdGenerator second = new SnowflakeIdGenerator(2, () -> frozen);
+        long[] ids = new long[20_000];
+        for (int i = 0; i < ids.length; i += 2) {
+            ids[i] = first.nextId();
+            ids[i + 1] = second.nextId();
+        }
+        assertEquals(ids.length, Arrays.stream(ids).distinct().count());
+    }
+
+    @Test
+    void idsKeepIncreasingWhenTheClockStepsBack() {
+        AtomicLong clock = new AtomicLong(System.currentTimeMillis());
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(3, clock::get);
+        long previous = generator.nextId();
+        for (int i = 0; i < 10_000; i++) {
+            if (i % 1000 == 0) {
+                clock.addAndGet(-5_000);
+            }
+            long id = generator.nextId();
+            assertTrue(id > previous);
+            previous = id;
+        }
+    }
+
+    @Test
+    void locatorsAreFixedWidthAndSortLikeIds() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(0);
+        String previous = Locators.encode("BK", generator.nextId());
+        for (int i = 0; i < 10_000; i++) {
+            String locator = Locators.encode("BK", generator.nextId());
+            assertEquals(2 + Locators.LENGTH, locator.length());
+            assertTrue(locator.substring(2).chars().allMatch(c -> "0123456789ABCDEFGHJKMNPQRSTVWXYZ".indexOf(c) >= 0));
+            assertTrue(locator.compareTo(previous) > 0);
+            previous = locator;
+        }
+        assertEquals("BK000000000000Z", Locators.encode("BK", 31));
+    }
+
+    @Test
+    void rejectsNodeIdsOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(-1));
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE_ID + 1));
+    }
+
+    private static long[] generateConcurrently(IdGenerator generator) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            Future<?>[] futures = new Future<?>[THREADS];
+            long[] ids = new long[THREADS * IDS_PER_THREAD];
+            for (int t = 0; t < THREADS; t++) {
+                int offset = t * IDS_PER_THREAD;
+                futures[t] = executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < IDS_PER_THREAD; i++) {
+                        ids[offset + i] = generator.nextId();
+                    }
+                    return null;
+                });
+            }
+            long began = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+            double seconds = (System.nanoTime() - began) / 1e9;
+            System.out.printf("Generated %d ids on %d threads in %.3fs (%.1f million/s)%n",
+                    ids.length, THREADS, seconds, ids.length / seconds / 1e6);
+            return ids;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
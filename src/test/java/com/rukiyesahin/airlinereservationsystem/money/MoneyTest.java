@@ -0,0 +1,71 @@
+package com.rukiyesahin.airlinereservationsystem.money;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Minor-unit arithmetic must round exactly as the BigDecimal prices it replaced did
+class MoneyTest {
+
+    @Test
+    void percentOfRoundsTiesToEven() {
+        assertEquals(0, Money.percentOf(1, 50));
+        assertEquals(2, Money.percentOf(3, 50));
+        assertEquals(2, Money.percentOf(10, 25));
+        assertEquals(8, Money.percentOf(5, 150));
+        assertEquals(1, Money.percentOf(1, 51));
+    }
+
+    @Test
+    void percentOfRoundsNegativeAmountsSymmetrically() {
+        assertEquals(0, Money.percentOf(-1, 50));
+        assertEquals(-2, Money.percentOf(-3, 50));
+        assertEquals(-8, Money.percentOf(-5, 150));
+        assertEquals(-1, Money.percentOf(-7, 10));
+        assertEquals(0, Money.percentOf(-3, 10));
+    }
+
+    @Test
+    void percentOfMatchesBigDecimal() {
+        Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            long minorUnits = random.nextInt(2_000_001) - 1_000_000;
+            long percent = random.nextInt(1_001);
+            long expected = BigDecimal.valueOf(minorUnits).multiply(BigDecimal.valueOf(percent))
+                    .divide(BigDecimal.valueOf(100), 0, RoundingMode.HALF_EVEN).longValueExact();
+            assertEquals(expected, Money.percentOf(minorUnits, percent), minorUnits + " * " + percent + "%");
+        }
+    }
+
+    @Test
+    void ofRoundsExtraDecimalsHalfEven() {
+        assertEquals(1000, Money.of(new BigDecimal("10.005")).minorUnits());
+        assertEquals(1002, Money.of(new BigDecimal("10.015")).minorUnits());
+        assertEquals(-1000, Money.of(new BigDecimal("-10.005")).minorUnits());
+        assertEquals(1000, Money.of(new BigDecimal("10")).minorUnits());
+        assertEquals(new BigDecimal("-12.34"), Money.ofMinor(-1234).toBigDecimal());
+    }
+
+    @Test
+    void ofRoundsQueryBoundsInward() {
+        assertEquals(1000, Money.of(new BigDecimal("10.009"), RoundingMode.FLOOR).minorUnits());
+        assertEquals(1001, Money.of(new BigDecimal("10.001"), RoundingMode.CEILING).minorUnits());
+        assertEquals(1000, Money.of(new BigDecimal("10.00"), RoundingMode.CEILING).minorUnits());
+        assertEquals(-1001, Money.of(new BigDecimal("-10.001"), RoundingMode.FLOOR).minorUnits());
+    }
+
+    @Test
+    void mixingCurrenciesIsRejected() {
+        Money dollars = Money.ofMinor(100);
+        Money euros = Money.of(BigDecimal.ONE, "EUR");
+
+        assertThrows(IllegalArgumentException.class, () -> dollars.plus(euros));
+        assertThrows(IllegalArgumentException.class, () -> dollars.compareTo(euros));
+        assertEquals(200, dollars.plus(Money.ofMinor(100)).minorUnits());
+    }
+}
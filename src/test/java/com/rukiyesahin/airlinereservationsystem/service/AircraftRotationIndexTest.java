@@ -0,0 +1,109 @@
+package com.rukiyesahin.airlinereservationsystem.service;
+
+import com.rukiyesahin.airlinereservationsystem.dto.AircraftBlock;
+import com.rukiyesahin.airlinereservationsystem.entity.Aircraft;
+import com.rukiyesahin.airlinereservationsystem.entity.Flight;
+import com.rukiyesahin.airlinereservationsystem.exception.AircraftScheduleConflictException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Conflict checks must hold when blocks of one aircraft overlap, as a refreshed delay can leave them
+class AircraftRotationIndexTest {
+
+    private static final long AIRCRAFT_ID = 1L;
+
+    private AircraftRotationIndex index;
+    private LocalDateTime base;
+
+    @BeforeEach
+    void setUp() {
+        index = new AircraftRotationIndex();
+        ReflectionTestUtils.setField(index, "minTurnaroundMinutes", 45);
+        base = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.DAYS);
+    }
+
+    @Test
+    void blockInsideAnEarlierLongerBlockDoesNotHideIt() {
+        // A long flight 10:00-14:00 and a delayed short one refreshed into it, 11:00-12:00
+        index.refresh(flight(1L, 10, 14));
+        index.refresh(flight(2L, 11, 12));
+
+        // The short one has turned around by 13:00, the long one has not even landed
+        Optional<AircraftBlock> conflict = index.findConflict(AIRCRAFT_ID, at(13), at(13).plusMinutes(30), null);
+
+        assertTrue(conflict.isPresent());
+        assertEquals(1L, conflict.get().flightId());
+    }
+
+    @Test
+    void ignoredFlightDoesNotEndTheScan() {
+        index.refresh(flight(1L, 10, 14));
+        index.refresh(flight(2L, 11, 12));
+
+        Optional<AircraftBlock> conflict = index.findConflict(AIRCRAFT_ID, at(13), at(13).plusMinutes(30), 2L);
+
+        assertEquals(Optional.of(1L), conflict.map(AircraftBlock::flightId));
+    }
+
+    @Test
+    void earlierBlocksThatHaveTurnedAroundDoNotConflict() {
+        index.refresh(flight(1L, 6, 8));
+        index.refresh(flight(2L, 8, 9));
+
+        assertTrue(index.findConflict(AIRCRAFT_ID, at(10), at(11), null).isEmpty());
+    }
+
+    @Test
+    void gapStartsAfterEveryOverlappingBlock() {
+        index.refresh(flight(1L, 10, 14));
+        index.refresh(flight(2L, 11, 12));
+
+        assertEquals(at(14).plusMinutes(45), index.findGap(AIRCRAFT_ID, at(13), Duration.ofHours(1)));
+        assertEquals(List.of(), index.findFree(List.of(AIRCRAFT_ID), at(13), at(14)));
+    }
+
+    @Test
+    void reserveRejectsDelayIntoTheNextFlight() {
+        index.refresh(flight(1L, 10, 12));
+        Flight next = flight(2L, 13, 15);
+        index.reserve(next);
+
+        // Delayed by an hour, the first flight lands at 13:00, as the next one leaves
+        Flight delayed = flight(1L, 11, 13);
+        assertThrows(AircraftScheduleConflictException.class, () -> index.reserve(delayed));
+
+        // A delay that still leaves the turnaround is accepted
+        assertDoesNotThrow(() -> index.reserve(flight(1L, at(10).plusMinutes(15), at(12).plusMinutes(15))));
+        assertEquals(2, index.getBlockCount());
+    }
+
+    private Flight flight(Long id, int departureHour, int arrivalHour) {
+        return flight(id, at(departureHour), at(arrivalHour));
+    }
+
+    private Flight flight(Long id, LocalDateTime departure, LocalDateTime arrival) {
+        Aircraft aircraft = new Aircraft();
+        aircraft.setId(AIRCRAFT_ID);
+        Flight flight = new Flight("RT" + id, null, null, departure, arrival, 180, BigDecimal.valueOf(100));
+        flight.setId(id);
+        flight.setAircraft(aircraft);
+        return flight;
+    }
+
+    private LocalDateTime at(int hour) {
+        return base.plusHours(hour);
+    }
+}
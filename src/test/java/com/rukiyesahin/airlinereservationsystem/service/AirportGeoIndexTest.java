@@ -0,0 +1,78 @@
+package com.rukiyesahin.airlinereservationsystem.service;
+
+import com.rukiyesahin.airlinereservationsystem.entity.Airport;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Queries must match a linear scan whether an airport sits in the tree or in the overlay of
+// writes since the last rebuild
+class AirportGeoIndexTest {
+
+    @Test
+    void queriesMatchLinearScanAcrossInsertsMovesAndRemovals() {
+        AirportGeoIndex index = new AirportGeoIndex();
+        Map<Long, Airport> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int step = 0; step < 2_000; step++) {
+            long id = 1 + random.nextInt(300);
+            if (random.nextInt(4) == 0) {
+                index.remove(id);
+                expected.remove(id);
+            } else {
+                Airport airport = airport(id, random);
+                index.index(airport);
+                expected.put(id, airport);
+            }
+            if (step % 50 == 0) {
+                double latitude = random.nextDouble() * 180 - 90;
+                double longitude = random.nextDouble() * 360 - 180;
+                assertEquals(scan(expected, latitude, longitude, 10), ids(index.nearest(latitude, longitude, 10)));
+                assertEquals(scan(expected, latitude, longitude, Integer.MAX_VALUE).stream()
+                                .filter(airportId -> distance(expected.get(airportId), latitude, longitude) <= 2_000)
+                                .toList(),
+                        ids(index.withinRadius(latitude, longitude, 2_000, Integer.MAX_VALUE)));
+            }
+        }
+    }
+
+    @Test
+    void airportWithoutCoordinatesIsRemoved() {
+        AirportGeoIndex index = new AirportGeoIndex();
+        Airport airport = airport(1L, new Random(1));
+        index.index(airport);
+        airport.setLatitude(null);
+        index.index(airport);
+
+        assertEquals(List.of(), index.nearest(0, 0, 5));
+    }
+
+    private static Airport airport(long id, Random random) {
+        Airport airport = new Airport("A" + id, "Airport " + id, "City", "TR");
+        airport.setId(id);
+        airport.setLatitude(random.nextDouble() * 180 - 90);
+        airport.setLongitude(random.nextDouble() * 360 - 180);
+        return airport;
+    }
+
+    private static List<Long> scan(Map<Long, Airport> airports, double latitude, double longitude, int k) {
+        List<Airport> sorted = new ArrayList<>(airports.values());
+        sorted.sort(Comparator.comparingDouble(airport -> distance(airport, latitude, longitude)));
+        return sorted.stream().limit(k).map(Airport::getId).toList();
+    }
+
+    private static double distance(Airport airport, double latitude, double longitude) {
+        return AirportGeoIndex.distanceKm(latitude, longitude, airport.getLatitude(), airport.getLongitude());
+    }
+
+    private static List<Long> ids(List<AirportGeoIndex.NearbyAirport> airports) {
+        return airports.stream().map(AirportGeoIndex.NearbyAirport::id).toList();
+    }
+}
@@ -0,0 +1,129 @@
+package com.rukiyesahin.airlinereservationsystem.service;
+
+import com.rukiyesahin.airlinereservationsystem.dto.MaintenanceSlot;
+import com.rukiyesahin.airlinereservationsystem.entity.Aircraft;
+import com.rukiyesahin.airlinereservationsystem.entity.Airport;
+import com.rukiyesahin.airlinereservationsystem.entity.Flight;
+import com.rukiyesahin.airlinereservationsystem.repository.AircraftRepository;
+import com.rukiyesahin.airlinereservationsystem.repository.AirportRepository;
+import com.rukiyesahin.airlinereservationsystem.repository.FlightRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+// Slots must fall in the gaps between an aircraft's flights, turnaround included, and never put
+// more aircraft in the hangar at once than it has bays
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:maintenanceplanner",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "airline.maintenance.duration-hours=8",
+        "airline.maintenance.hangar-bays=1",
+        "airline.rotation.min-turnaround-minutes=45"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MaintenancePlannerTest {
+
+    @Autowired
+    private MaintenancePlanner maintenancePlanner;
+
+    @Autowired
+    private AircraftRotationIndex aircraftRotationIndex;
+
+    @Autowired
+    private AirportRepository airportRepository;
+
+    @Autowired
+    private AircraftRepository aircraftRepository;
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    private LocalDateTime base;
+    private Long first;
+    private Long second;
+    private Long third;
+
+    // Three aircraft due one day apart, each with flights that decide where its gaps are
+    @BeforeAll
+    void seedFleet() {
+        base = LocalDateTime.now().withNano(0);
+        Airport departure = airportRepository.save(new Airport("MPD", "Planner Departure", "Istanbul", "TR"));
+        Airport arrival = airportRepository.save(new Airport("MPA", "Planner Arrival", "Antalya", "TR"));
+
+        // Free from 5:45 until its next flight at 14:00, too short for 8 hours; next gap from 16:45
+        first = aircraft("TC-MP1", 1);
+        flight("MP11", departure, arrival, first, 180, 300);
+        flight("MP12", arrival, departure, first, 14 * 60, 16 * 60);
+        // Free from 24:45, just as the first one leaves the hangar
+        second = aircraft("TC-MP2", 2);
+        flight("MP21", departure, arrival, second, 60, 24 * 60);
+        // Free from 20:00, while the first one is in the hangar and until after the second one comes in
+        third = aircraft("TC-MP3", 3);
+        flight("MP31", departure, arrival, third, 30, 19 * 60 + 15);
+        aircraftRotationIndex.reload();
+    }
+
+    @Test
+    void oneBayTakesTheAircraftOneAfterTheOther() {
+        Map<Long, MaintenanceSlot> slots = plan();
+
+        assertEquals(at(16 * 60 + 45), slots.get(first).start());
+        assertEquals(at(24 * 60 + 45), slots.get(second).start());
+        // Its own gap opens at 20:00, but the only bay is busy until 32:45
+        assertEquals(at(32 * 60 + 45), slots.get(third).start());
+        assertFalse(slots.get(first).late());
+    }
+
+    @Test
+    void slotsThatFollowEachOtherShareABay() {
+        MaintenancePlanner target = AopTestUtils.getTargetObject(maintenancePlanner);
+        ReflectionTestUtils.setField(target, "hangarBays", 2);
+        try {
+            Map<Long, MaintenanceSlot> slots = plan();
+
+            // The first and second slots touch the third one's window but are never in the hangar together
+            assertEquals(at(16 * 60 + 45), slots.get(first).start());
+            assertEquals(at(24 * 60 + 45), slots.get(second).start());
+            assertEquals(at(20 * 60), slots.get(third).start());
+        } finally {
+            ReflectionTestUtils.setField(target, "hangarBays", 1);
+        }
+    }
+
+    private Map<Long, MaintenanceSlot> plan() {
+        return maintenancePlanner.plan(7).stream()
+                .collect(Collectors.toMap(MaintenanceSlot::aircraftId, Function.identity()));
+    }
+
+    private Long aircraft(String registration, int dueInDays) {
+        Aircraft aircraft = new Aircraft(registration, "Narrow-body", "Airbus", "A320", 180, 150, 24, 6);
+        aircraft.setNextMaintenance(base.plusDays(dueInDays));
+        return aircraftRepository.save(aircraft).getId();
+    }
+
+    private void flight(String flightNumber, Airport departure, Airport arrival, Long aircraftId,
+                        int departureMinute, int arrivalMinute) {
+        Flight flight = new Flight(flightNumber, departure, arrival, at(departureMinute), at(arrivalMinute),
+                180, BigDecimal.valueOf(100));
+        flight.setAircraft(aircraftRepository.getReferenceById(aircraftId));
+        flightRepository.save(flight);
+    }
+
+    private LocalDateTime at(int minutes) {
+        return base.plusMinutes(minutes);
+    }
+}
@@ -0,0 +1,153 @@
+package com.rukiyesahin.airlinereservationsystem.service;
+
+import com.rukiyesahin.airlinereservationsystem.entity.Airport;
+import com.rukiyesahin.airlinereservationsystem.entity.Flight;
+import com.rukiyesahin.airlinereservationsystem.repository.AirportRepository;
+import com.rukiyesahin.airlinereservationsystem.repository.FlightRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The flights table must end up with the in-memory seat count, whatever order bookings,
+// flushes and flight saves commit in
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:seatinventory",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "airline.inventory.flush-interval-ms=3600000"
+})
+class SeatInventoryTest {
+
+    private static final int SEATS = 500;
+
+    @Autowired
+    private SeatInventory seatInventory;
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private AirportRepository airportRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Airport departure;
+    private Airport arrival;
+
+    @BeforeEach
+    void seedAirports() {
+        if (departure == null) {
+            departure = airportRepository.findByCode("SID").orElseGet(() -> airportRepository.save(new Airport("SID", "Seat Departure", "Istanbul", "TR")));
+            arrival = airportRepository.findByCode("SIA").orElseGet(() -> airportRepository.save(new Airport("SIA", "Seat Arrival", "Ankara", "TR")));
+        }
+    }
+
+    @Test
+    void flushBetweenSyncAndCommitIsWrittenAgain() throws Exception {
+        Long flightId = newFlight("SI1");
+        assertTrue(seatInventory.tryBookSeat(flightId));
+        seatInventory.flush();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Flight flight = flightRepository.findById(flightId).orElseThrow();
+            flight.setGate("B7");
+            seatInventory.sync(flight);
+            flightRepository.save(flight);
+            // A booking flushed by another thread before this save commits the older count
+            assertTrue(seatInventory.tryBookSeat(flightId));
+            try {
+                CompletableFuture.runAsync(seatInventory::flush).get(30, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        seatInventory.flush();
+
+        assertEquals(SEATS - 2, seatInventory.getAvailableSeats(flightId));
+        assertEquals(SEATS - 2, flightRepository.findById(flightId).orElseThrow().getAvailableSeats());
+    }
+
+    @Test
+    void concurrentBookingsFlushesAndSavesKeepTheCount() throws Exception {
+        Long flightId = newFlight("SI2");
+        int threads = 8;
+        AtomicInteger booked = new AtomicInteger();
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 2);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> bookers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                bookers.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 50; i++) {
+                        if (seatInventory.tryBookSeat(flightId)) {
+                            booked.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            Future<?> flusher = executor.submit(() -> {
+                start.await();
+                while (running.get()) {
+                    seatInventory.flush();
+                }
+                return null;
+            });
+            Future<?> saver = executor.submit(() -> {
+                start.await();
+                for (int i = 0; running.get(); i++) {
+                    String gate = "G" + i;
+                    new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                        Flight flight = flightRepository.findById(flightId).orElseThrow();
+                        flight.setGate(gate);
+                        seatInventory.sync(flight);
+                        flightRepository.save(flight);
+                    });
+                }
+                return null;
+            });
+            start.countDown();
+            for (Future<?> booker : bookers) {
+                booker.get(60, TimeUnit.SECONDS);
+            }
+            running.set(false);
+            flusher.get(60, TimeUnit.SECONDS);
+            saver.get(60, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        seatInventory.flush();
+
+        assertEquals(SEATS - booked.get(), seatInventory.getAvailableSeats(flightId));
+        assertEquals(SEATS - booked.get(), flightRepository.findById(flightId).orElseThrow().getAvailableSeats());
+    }
+
+    private Long newFlight(String flightNumber) {
+        LocalDateTime departureTime = LocalDateTime.now().plusDays(3);
+        Flight flight = new Flight(flightNumber, departure, arrival, departureTime, departureTime.plusHours(2),
+                SEATS, BigDecimal.valueOf(120));
+        return flightRepository.save(flight).getId();
+    }
+}
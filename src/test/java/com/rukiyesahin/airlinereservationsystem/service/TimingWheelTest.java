@@ -0,0 +1,124 @@
+package com.rukiyesahin.airlinereservationsystem.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Every timer must fire exactly once, on its own tick, from every level of the wheel and from
+// the overflow queue, however the wheel is advanced
+class TimingWheelTest {
+
+    private static final long LEVEL_SPAN = 64;
+    private static final long HORIZON = LEVEL_SPAN * LEVEL_SPAN * LEVEL_SPAN * LEVEL_SPAN;
+    // Not aligned to any level, so every level wraps around mid-test
+    private static final long START = 123_456_789L;
+
+    @Test
+    void firesOnItsTickAtEveryLevelBoundary() {
+        TimingWheel<Long> wheel = new TimingWheel<>(1, START);
+        TreeMap<Long, List<Long>> expected = new TreeMap<>();
+        for (long span = 1; span <= HORIZON; span *= LEVEL_SPAN) {
+            for (long delta : new long[] {span - 1, span, span + 1, 2 * span - 1}) {
+                if (delta > 0) {
+                    schedule(wheel, expected, START + delta);
+                }
+            }
+        }
+        // Overflow, including timers due at the same tick as ones from the wheel
+        schedule(wheel, expected, START + HORIZON + 5);
+        schedule(wheel, expected, START + 3 * HORIZON);
+        schedule(wheel, expected, START + 3 * HORIZON);
+
+        long now = START;
+        for (Map.Entry<Long, List<Long>> entry : expected.entrySet()) {
+            long tick = entry.getKey();
+            if (tick - 1 > now) {
+                assertEquals(List.of(), wheel.advanceTo(tick - 1), "fired before tick " + tick);
+            }
+            assertEquals(sorted(entry.getValue()), sorted(wheel.advanceTo(tick)), "tick " + tick);
+            now = tick;
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void randomSchedulesAndAdvancesFireEachTimerOnceOnTime() {
+        Random random = new Random(42);
+        TimingWheel<Long> wheel = new TimingWheel<>(1, START);
+        Map<Long, Long> dueTick = new HashMap<>();
+        TreeMap<Long, Integer> pendingByTick = new TreeMap<>();
+        long now = START;
+        long next = 0;
+        // Advances of up to 64^3 ticks add up to a few horizons: every level wraps and the overflow drains
+        for (int step = 0; step < 1_500; step++) {
+            for (int i = random.nextInt(20); i > 0; i--) {
+                long tick = now + randomDelta(random, 6);
+                dueTick.put(next, tick);
+                pendingByTick.merge(tick, 1, Integer::sum);
+                wheel.schedule(next++, tick);
+            }
+            long target = now + Math.max(0, randomDelta(random, 4));
+            for (Long item : wheel.advanceTo(target)) {
+                Long tick = dueTick.remove(item);
+                assertTrue(tick != null, "timer " + item + " fired twice");
+                assertTrue(tick <= target, "timer " + item + " due " + tick + " fired at " + target);
+                pendingByTick.compute(tick, (key, count) -> count == 1 ? null : count - 1);
+            }
+            if (!pendingByTick.isEmpty()) {
+                assertTrue(pendingByTick.firstKey() > target, "timer due " + pendingByTick.firstKey()
+                        + " not fired by " + target);
+            }
+            now = target;
+        }
+        assertTrue(now - START > HORIZON, "advanced " + (now - START));
+        assertEquals(dueTick.size(), wheel.size());
+    }
+
+    @Test
+    void pastTimesFireOnTheNextAdvance() {
+        TimingWheel<String> wheel = new TimingWheel<>(1000, 10_000);
+        wheel.schedule("past", 5_000);
+        wheel.schedule("now", 10_000);
+
+        assertEquals(List.of("past", "now"), wheel.advanceTo(10_000));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void expiryRoundsUpToTheNextTick() {
+        TimingWheel<String> wheel = new TimingWheel<>(1000, 10_000);
+        wheel.schedule("late", 11_500);
+
+        assertEquals(List.of(), wheel.advanceTo(11_999));
+        assertEquals(List.of("late"), wheel.advanceTo(12_000));
+    }
+
+    // Deltas spread over the given number of wheel levels, a sixth level being the overflow
+    // queue; level 0 yields times already past or due now
+    private static long randomDelta(Random random, int levels) {
+        int level = random.nextInt(levels);
+        if (level == 0) {
+            return -random.nextInt(3);
+        }
+        long span = level == 5 ? 2 * HORIZON : (long) Math.pow(LEVEL_SPAN, level);
+        return 1 + (long) (random.nextDouble() * span);
+    }
+
+    private static void schedule(TimingWheel<Long> wheel, TreeMap<Long, List<Long>> expected, long tick) {
+        long item = expected.values().stream().mapToLong(List::size).sum();
+        expected.computeIfAbsent(tick, key -> new ArrayList<>()).add(item);
+        wheel.schedule(item, tick);
+    }
+
+    private static List<Long> sorted(List<Long> items) {
+        return items.stream().sorted().toList();
+    }
+}